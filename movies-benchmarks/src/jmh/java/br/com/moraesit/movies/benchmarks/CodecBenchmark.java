@@ -0,0 +1,110 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.review.service.domain.Review;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode of a MovieInfo list and a Review list, the bodies of the list endpoints, in each
+ * format the services negotiate, with and without generated accessors. The payload sizes are
+ * printed once per trial, next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CodecBenchmark {
+
+    private static final TypeReference<List<MovieInfo>> MOVIE_INFOS = new TypeReference<>() {
+    };
+
+    private static final TypeReference<List<Review>> REVIEWS = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"true", "false"})
+    private boolean generatedAccessors;
+
+    @Param({"50"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+
+    private List<MovieInfo> movieInfos;
+
+    private List<Review> reviews;
+
+    private byte[] encodedMovieInfos;
+
+    private byte[] encodedReviews;
+
+    @Setup
+    public void setUp() throws Exception {
+        var builder = Jackson2ObjectMapperBuilder.json().factory(factory());
+        if (generatedAccessors)
+            builder.modulesToInstall(new BlackbirdModule());
+        objectMapper = builder.build();
+
+        movieInfos = new ArrayList<>(listSize);
+        reviews = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            var cast = List.of("Christian Bale", "Michael Cane", "Cast Member " + i);
+            movieInfos.add(new MovieInfo("62d6d7e1b1c3a45f8a6f" + String.format("%04x", i), "Batman Begins " + i,
+                    2005, cast, LocalDate.parse("2005-06-15")));
+            reviews.add(new Review("62d6d7e1b1c3a45f8a6f" + String.format("%04x", i), (long) i,
+                    "Awesome Movie, watched it twice", 9.0, 0L));
+        }
+        encodedMovieInfos = objectMapper.writeValueAsBytes(movieInfos);
+        encodedReviews = objectMapper.writeValueAsBytes(reviews);
+        System.out.printf("%n%s: %d movie infos in %d bytes, %d reviews in %d bytes%n",
+                format, listSize, encodedMovieInfos.length, listSize, encodedReviews.length);
+    }
+
+    private JsonFactory factory() {
+        return switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    @Benchmark
+    public byte[] encodeMovieInfos() throws Exception {
+        return objectMapper.writeValueAsBytes(movieInfos);
+    }
+
+    @Benchmark
+    public List<MovieInfo> decodeMovieInfos() throws Exception {
+        return objectMapper.readValue(encodedMovieInfos, MOVIE_INFOS);
+    }
+
+    @Benchmark
+    public byte[] encodeReviews() throws Exception {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public List<Review> decodeReviews() throws Exception {
+        return objectMapper.readValue(encodedReviews, REVIEWS);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.info.service.controller.MoviesInfoController;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.review.service.exception.ReviewDataException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import javax.validation.Validation;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses of both services: the message assembly of the movie info GlobalErrorHandler
+ * for a failed {@code @Valid}, and the review GlobalErrorHandler writing a 400 body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ErrorHandlerBenchmark {
+
+    private br.com.moraesit.movies.info.service.exceptionhandler.GlobalErrorHandler movieInfoErrorHandler;
+
+    private br.com.moraesit.movies.review.service.exceptionhandler.GlobalErrorHandler reviewErrorHandler;
+
+    private WebExchangeBindException bindException;
+
+    private ReviewDataException reviewDataException;
+
+    @Setup
+    public void setUp() throws Exception {
+        movieInfoErrorHandler = new br.com.moraesit.movies.info.service.exceptionhandler.GlobalErrorHandler();
+        reviewErrorHandler = new br.com.moraesit.movies.review.service.exceptionhandler.GlobalErrorHandler();
+
+        var movieInfo = new MovieInfo(null, "", -2005, List.of(""), LocalDate.parse("2005-06-15"));
+        var bindingResult = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+        try (var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            new SpringValidatorAdapter(validatorFactory.getValidator()).validate(movieInfo, bindingResult);
+        }
+        var methodParameter = new MethodParameter(
+                MoviesInfoController.class.getMethod("addMovieInfo", MovieInfo.class), 0);
+        bindException = new WebExchangeBindException(methodParameter, bindingResult);
+
+        reviewDataException = new ReviewDataException("rating.movieInfoId: must not be null,rating.negative: please pass a non-negative value");
+    }
+
+    @Benchmark
+    public ResponseEntity<String> movieInfo_bindError() {
+        return movieInfoErrorHandler.handleRequestBodyError(bindException);
+    }
+
+    @Benchmark
+    public Object review_dataError() {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/reviews"));
+        reviewErrorHandler.handle(exchange, reviewDataException).block();
+        return exchange.getResponse();
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encode/decode of a MovieInfo as the WebFlux codecs do it, at growing cast sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MovieInfoJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int castSize;
+
+    private ObjectMapper objectMapper;
+
+    private MovieInfo movieInfo;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var cast = new ArrayList<String>(castSize);
+        for (int i = 0; i < castSize; i++)
+            cast.add("Cast Member " + i);
+        movieInfo = new MovieInfo("62d6d7e1b1c3a45f8a6f0c11", "Batman Begins", 2005, cast, LocalDate.parse("2005-06-15"));
+        json = objectMapper.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public MovieInfo decode() throws Exception {
+        return objectMapper.readValue(json, MovieInfo.class);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.review.service.domain.Review;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encode/decode of a Review at growing comment lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReviewJsonBenchmark {
+
+    @Param({"16", "256", "4096"})
+    private int commentLength;
+
+    private ObjectMapper objectMapper;
+
+    private Review review;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        review = new Review("62d6d7e1b1c3a45f8a6f0c12", 1L, "a".repeat(commentLength), 9.0, 3L);
+        json = objectMapper.writeValueAsBytes(review);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(review);
+    }
+
+    @Benchmark
+    public Review decode() throws Exception {
+        return objectMapper.readValue(json, Review.class);
+    }
+}
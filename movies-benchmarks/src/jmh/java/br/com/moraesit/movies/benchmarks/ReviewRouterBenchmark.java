@@ -0,0 +1,60 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.common.streaming.StreamingProperties;
+import br.com.moraesit.movies.review.service.handler.ReviewHandler;
+import br.com.moraesit.movies.review.service.router.ReviewRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving a request to its handler through the ReviewRouter predicates, without
+ * running the handler. Routes later in the table pay for every predicate tried before them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReviewRouterBenchmark {
+
+    @Param({"GET /v1/reviews", "POST /v1/reviews", "PUT /v1/reviews/62d6d7e1b1c3a45f8a6f0c12",
+            "GET /v1/reviews/summary/1", "GET /v1/reviews/stream/1", "GET /v1/helloworld"})
+    private String route;
+
+    private RouterFunction<ServerResponse> routerFunction;
+
+    private HttpMethod method;
+
+    private URI uri;
+
+    @Setup
+    public void setUp() {
+        // dispatch only resolves the handler function, so none of its collaborators are needed
+        var reviewHandler = new ReviewHandler(null, null, null, new StreamingProperties(), null, null, null);
+        routerFunction = new ReviewRouter().reviewsRoute(reviewHandler);
+        var parts = route.split(" ");
+        method = HttpMethod.valueOf(parts[0]);
+        uri = URI.create("http://localhost:8081" + parts[1]);
+    }
+
+    @Benchmark
+    public HandlerFunction<ServerResponse> dispatch() {
+        var request = MockServerRequest.builder()
+                .method(method)
+                .uri(uri)
+                .build();
+        return routerFunction.route(request).block();
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.info.service.controller.FluxAndMonoController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the /stream endpoint as open connections grow: {@code shared} is the controller's
+ * multicast ticker, {@code perConnection} the previous one timer per subscriber. Time is virtual,
+ * so {@link #tick()} measures the CPU and allocation (see the gc profiler) of delivering one tick
+ * to every connection, and {@link #connect()} those of opening and closing all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamFanOutBenchmark {
+
+    private static final Duration PERIOD = Duration.ofSeconds(1);
+
+    @Param({"100", "1000", "10000"})
+    private int connections;
+
+    @Param({"shared", "perConnection"})
+    private String source;
+
+    private VirtualTimeScheduler scheduler;
+
+    private Supplier<Flux<Long>> stream;
+
+    private final LongAdder received = new LongAdder();
+
+    private List<Disposable> open;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        if ("shared".equals(source)) {
+            var controller = new FluxAndMonoController(PERIOD, scheduler);
+            stream = controller::stream;
+        } else {
+            stream = () -> Flux.interval(PERIOD, scheduler).onBackpressureDrop();
+        }
+        open = subscribeAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        open.forEach(Disposable::dispose);
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public long tick() {
+        scheduler.advanceTimeBy(PERIOD);
+        return received.sum();
+    }
+
+    @Benchmark
+    public int connect() {
+        var connected = subscribeAll();
+        connected.forEach(Disposable::dispose);
+        return connected.size();
+    }
+
+    private List<Disposable> subscribeAll() {
+        var subscriptions = new ArrayList<Disposable>(connections);
+        for (int i = 0; i < connections; i++)
+            subscriptions.add(stream.get().subscribe(tick -> received.increment()));
+        return subscriptions;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.moraesit.movies.benchmarks;
+
+import br.com.moraesit.movies.common.streaming.StreamingProperties;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.exception.ReviewDataException;
+import br.com.moraesit.movies.review.service.handler.ReviewHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation as done by {@code @Valid} on MoviesInfoController.addMovieInfo, and
+ * ReviewHandler.validate, each on a valid and on an invalid payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private ReviewHandler reviewHandler;
+
+    private final MovieInfo validMovieInfo = new MovieInfo(null, "Batman Begins", 2005,
+            List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+    private final MovieInfo invalidMovieInfo = new MovieInfo(null, "", -2005,
+            List.of(""), LocalDate.parse("2005-06-15"));
+
+    private final Review validReview = new Review(null, 1L, "Awesome Movie", 9.0);
+
+    private final Review invalidReview = new Review(null, null, "Awesome Movie", -9.0);
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        // validate() only needs the validator; the handler's other collaborators are never reached
+        reviewHandler = new ReviewHandler(validator, null, null, new StreamingProperties(), null, null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> movieInfo_valid() {
+        return validator.validate(validMovieInfo);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> movieInfo_invalid() {
+        return validator.validate(invalidMovieInfo);
+    }
+
+    @Benchmark
+    public Review review_valid() {
+        reviewHandler.validate(validReview);
+        return validReview;
+    }
+
+    @Benchmark
+    public Object review_invalid() {
+        try {
+            reviewHandler.validate(invalidReview);
+            return invalidReview;
+        } catch (ReviewDataException ex) {
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.moraesit.movies.common.codec;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds CBOR and Smile next to JSON, all three built from the application's Jackson configuration,
+ * and lets Jackson use generated accessors instead of reflection.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+public class JacksonCodecsAutoConfiguration {
+
+    /**
+     * Picked up by Boot like any other Module bean, so it reaches every mapper built below too.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "movies.codecs", name = "generated-accessors", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        var smileMapper = jackson2ObjectMapperBuilder.factory(new SmileFactory()).build();
+        var cborMapper = jackson2ObjectMapperBuilder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            // the CBOR decoder only decodes whole values, a Flux request body has to stay JSON or NDJSON
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.moraesit.movies.common.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Types a single value or a collected list can be written as, the default first.
+     */
+    public static final List<MediaType> VALUE_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * Types a stream of values can be written as, the default first. Not CBOR: its encoder only
+     * writes single values and fails on a Flux.
+     */
+    public static final List<MediaType> STREAM_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON, APPLICATION_SMILE);
+
+    private MediaTypes() {
+    }
+
+    /**
+     * Picks the supported type the client prefers, for functional endpoints which, unlike
+     * annotated controllers, do not negotiate on Accept. Falls back to the first supported type
+     * when nothing matches, as a missing Accept header does.
+     */
+    public static MediaType negotiate(List<MediaType> accept, List<MediaType> supported) {
+        var preferred = new ArrayList<>(accept);
+        MediaType.sortBySpecificityAndQuality(preferred);
+        for (var accepted : preferred) {
+            for (var candidate : supported) {
+                if (accepted.includes(candidate))
+                    return candidate;
+            }
+        }
+        return supported.get(0);
+    }
+}
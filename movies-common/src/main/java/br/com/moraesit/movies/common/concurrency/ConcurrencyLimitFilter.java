@@ -0,0 +1,142 @@
+package br.com.moraesit.movies.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests against a {@link GradientLimit} learned from their latency and answers the
+ * rest at once with 503 and Retry-After, before any of their work is started. Low priority
+ * routes (bulk, admin) may only fill a share of the limit, so they are the first to be shed and
+ * reads keep the rest.
+ */
+public class ConcurrencyLimitFilter implements WebFilter, Ordered {
+
+    static final String LIMIT_METRIC = "http.server.concurrency.limit";
+
+    static final String IN_FLIGHT_METRIC = "http.server.concurrency.in-flight";
+
+    static final String REJECTED_METRIC = "http.server.concurrency.rejected";
+
+    private final GradientLimit limit;
+
+    private final double lowPriorityShare;
+
+    private final List<PathPattern> lowPriorityPaths;
+
+    private final List<PathPattern> excludedPaths;
+
+    private final String retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejectedHigh;
+
+    private final Counter rejectedLow;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new GradientLimit(properties);
+        this.lowPriorityShare = properties.getLowPriorityShare();
+        this.lowPriorityPaths = parse(properties.getLowPriorityPaths());
+        this.excludedPaths = parse(properties.getExcludedPaths());
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+
+        Gauge.builder(LIMIT_METRIC, limit, GradientLimit::getLimit)
+                .description("Requests admitted at once, as adapted from their latency")
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, AtomicInteger::get)
+                .description("Requests admitted and not yet completed")
+                .register(meterRegistry);
+        this.rejectedHigh = rejectedCounter(meterRegistry, "high");
+        this.rejectedLow = rejectedCounter(meterRegistry, "low");
+    }
+
+    @Override
+    public int getOrder() {
+        // ahead of every other filter, so a rejected request costs as little as possible
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var path = exchange.getRequest().getPath().pathWithinApplication();
+        if (matches(excludedPaths, path))
+            return chain.filter(exchange);
+
+        var lowPriority = matches(lowPriorityPaths, path);
+        var currentLimit = limit.getLimit();
+        var allowed = lowPriority ? Math.max(1, (int) (currentLimit * lowPriorityShare)) : currentLimit;
+        var admitted = inFlight.incrementAndGet();
+        if (admitted > allowed) {
+            inFlight.decrementAndGet();
+            (lowPriority ? rejectedLow : rejectedHigh).increment();
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return response.setComplete();
+        }
+
+        // latency is taken when the response is committed: a streamed export sends its first
+        // bytes as soon as a long one would, and its full duration says nothing about overload
+        var start = System.nanoTime();
+        var sampled = new AtomicBoolean();
+        exchange.getResponse().beforeCommit(() -> {
+            if (sampled.compareAndSet(false, true))
+                limit.onSample(System.nanoTime() - start, admitted);
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doFinally(signalType -> {
+                    inFlight.decrementAndGet();
+                    if (!sampled.compareAndSet(false, true))
+                        return;
+                    // nothing committed yet: errors still count by their latency, as most are client
+                    // errors answered by the exception handlers further out, while a client that gave
+                    // up before the first byte is a sign of overload
+                    if (signalType == SignalType.CANCEL)
+                        limit.onDropped();
+                    else
+                        limit.onSample(System.nanoTime() - start, admitted);
+                });
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (var pattern : patterns) {
+            if (pattern.matches(path))
+                return true;
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String priority) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Requests answered with 503 because the concurrency limit was reached")
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.moraesit.movies.common.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "movies.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether requests are admitted against the adaptive limit at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * In-flight requests admitted before any latency has been observed.
+     */
+    private int initialLimit = 100;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 1000;
+
+    /**
+     * How much a recent latency may exceed the long term average before the limit shrinks;
+     * 2.0 tolerates twice the usual latency.
+     */
+    private double rttTolerance = 2.0;
+
+    /**
+     * Weight of each new limit estimate, between 0 (never move) and 1 (follow every sample).
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Samples the long term latency average spans.
+     */
+    private int longWindow = 600;
+
+    /**
+     * Factor the limit is multiplied with when a client cancels its request.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Share of the limit that low priority routes may fill, so they are shed before reads are.
+     */
+    private double lowPriorityShare = 0.5;
+
+    /**
+     * Path patterns of bulk and admin routes, admitted only within the low priority share.
+     */
+    private List<String> lowPriorityPaths = new ArrayList<>();
+
+    /**
+     * Path patterns never limited: actuator, and long lived streams whose duration says nothing
+     * about how loaded the service is.
+     */
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**"));
+
+    /**
+     * Retry-After sent with a rejection.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,74 @@
+package br.com.moraesit.movies.common.concurrency;
+
+/**
+ * Concurrency limit that follows the ratio between the long term and the recent request
+ * latency. While latency stays near its average the limit grows by a queue allowance of
+ * {@code sqrt(limit)}; once recent latency exceeds the average by more than the tolerance the
+ * limit shrinks in proportion, and a request its client gave up on backs it off multiplicatively.
+ * Samples taken while less than half the limit is in use do not grow it, since they say nothing
+ * about what a higher limit would do.
+ */
+public class GradientLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double rttTolerance;
+
+    private final double smoothing;
+
+    private final double longWindowWeight;
+
+    private final double backoffRatio;
+
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private volatile int limit;
+
+    public GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.longWindowWeight = 2.0 / (properties.getLongWindow() + 1);
+        this.backoffRatio = properties.getBackoffRatio();
+        this.estimatedLimit = clamp(properties.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0)
+            return;
+        longRtt = longRtt == 0 ? rttNanos : longRtt * (1 - longWindowWeight) + rttNanos * longWindowWeight;
+        // after a sustained shift in latency the average would lag for the whole window, so it is
+        // pulled towards recent samples instead of keeping the limit pinned down
+        if (longRtt / rttNanos > 2)
+            longRtt *= 0.95;
+
+        if (inFlight < estimatedLimit / 2)
+            return;
+        var gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rttNanos));
+        var newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    public synchronized void onDropped() {
+        update(estimatedLimit * backoffRatio);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = clamp(newLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
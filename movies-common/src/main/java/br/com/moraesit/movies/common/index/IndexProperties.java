@@ -0,0 +1,27 @@
+package br.com.moraesit.movies.common.index;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Bound by each service under its own prefix, next to its {@link IndexedTypes}.
+ */
+@Data
+public class IndexProperties {
+
+    /**
+     * Create or verify the indexes declared on the domain classes once the application is ready.
+     */
+    private boolean verifyOnStartup = true;
+
+    /**
+     * Delay before the verification starts, so it does not compete with the first requests.
+     */
+    private Duration initialDelay = Duration.ZERO;
+
+    /**
+     * Distinct query shapes remembered for the mongoindexes actuator endpoint.
+     */
+    private int maxRecordedQueryShapes = 200;
+}
@@ -0,0 +1,15 @@
+package br.com.moraesit.movies.common.index;
+
+import java.util.List;
+
+/**
+ * The domain classes whose declared indexes are verified on startup and listed by the
+ * mongoindexes endpoint. Declaring this bean, with an {@link IndexProperties} one, is what turns
+ * the index support on for a service.
+ */
+public record IndexedTypes(List<Class<?>> types) {
+
+    public static IndexedTypes of(Class<?>... types) {
+        return new IndexedTypes(List.of(types));
+    }
+}
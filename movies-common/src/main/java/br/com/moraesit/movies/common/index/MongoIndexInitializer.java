@@ -0,0 +1,49 @@
+package br.com.moraesit.movies.common.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates, or verifies when they already exist, the indexes declared on the domain classes.
+ * Runs in the background after startup so a slow index build never delays readiness.
+ */
+@Slf4j
+public class MongoIndexInitializer {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final MongoMappingContext mongoMappingContext;
+
+    private final IndexProperties indexProperties;
+
+    private final IndexedTypes indexedTypes;
+
+    public MongoIndexInitializer(ReactiveMongoTemplate reactiveMongoTemplate, MongoMappingContext mongoMappingContext,
+                                 IndexProperties indexProperties, IndexedTypes indexedTypes) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.mongoMappingContext = mongoMappingContext;
+        this.indexProperties = indexProperties;
+        this.indexedTypes = indexedTypes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!indexProperties.isVerifyOnStartup())
+            return;
+
+        var indexResolver = IndexResolver.create(mongoMappingContext);
+        Mono.delay(indexProperties.getInitialDelay())
+                .thenMany(Flux.fromIterable(indexedTypes.types()))
+                .concatMap(type -> Flux.fromIterable(indexResolver.resolveIndexFor(type))
+                        .concatMap(indexDefinition -> reactiveMongoTemplate.indexOps(type).ensureIndex(indexDefinition))
+                        .doOnNext(indexName -> log.info("index {} verified on {}", indexName,
+                                reactiveMongoTemplate.getCollectionName(type))))
+                .subscribe(null, ex -> log.error("index verification failed: {}", ex.getMessage(), ex));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.moraesit.movies.common.index;
+
+import com.mongodb.MongoClientSettings;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Index verification and the mongoindexes endpoint for a service that declares its
+ * {@link IndexedTypes} and binds an {@link IndexProperties} under its own prefix.
+ */
+@AutoConfiguration(after = MongoReactiveDataAutoConfiguration.class)
+@ConditionalOnClass({MongoClientSettings.class, ReactiveMongoTemplate.class})
+@ConditionalOnBean({IndexedTypes.class, IndexProperties.class})
+public class MongoIndexesAutoConfiguration {
+
+    @Bean
+    public QueryShapeRecorder queryShapeRecorder(IndexProperties indexProperties) {
+        return new QueryShapeRecorder(indexProperties);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryShapeRecorderCustomizer(QueryShapeRecorder queryShapeRecorder) {
+        return builder -> builder.addCommandListener(queryShapeRecorder);
+    }
+
+    @Bean
+    public MongoIndexInitializer mongoIndexInitializer(ReactiveMongoTemplate reactiveMongoTemplate,
+                                                       MongoMappingContext mongoMappingContext,
+                                                       IndexProperties indexProperties, IndexedTypes indexedTypes) {
+        return new MongoIndexInitializer(reactiveMongoTemplate, mongoMappingContext, indexProperties, indexedTypes);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class EndpointConfiguration {
+
+        @Bean
+        public MongoIndexesEndpoint mongoIndexesEndpoint(ReactiveMongoTemplate reactiveMongoTemplate,
+                                                         QueryShapeRecorder queryShapeRecorder,
+                                                         IndexedTypes indexedTypes) {
+            return new MongoIndexesEndpoint(reactiveMongoTemplate, queryShapeRecorder, indexedTypes);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.moraesit.movies.common.index;
+
+import org.bson.Document;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the indexes of every indexed collection and explains each query shape seen so far,
+ * flagging the ones whose winning plan is a collection scan.
+ */
+@Endpoint(id = "mongoindexes")
+public class MongoIndexesEndpoint {
+
+    private static final String COLLSCAN = "COLLSCAN";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final QueryShapeRecorder queryShapeRecorder;
+
+    private final IndexedTypes indexedTypes;
+
+    public MongoIndexesEndpoint(ReactiveMongoTemplate reactiveMongoTemplate, QueryShapeRecorder queryShapeRecorder,
+                                IndexedTypes indexedTypes) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.queryShapeRecorder = queryShapeRecorder;
+        this.indexedTypes = indexedTypes;
+    }
+
+    @ReadOperation
+    public Mono<IndexReport> indexes() {
+        var collections = Flux.fromIterable(indexedTypes.types())
+                .flatMap(type -> reactiveMongoTemplate.indexOps(type).getIndexInfo()
+                        .map(indexInfo -> new IndexView(indexInfo.getName(), indexInfo.getIndexFields().stream()
+                                .map(MongoIndexesEndpoint::describe)
+                                .collect(Collectors.toList())))
+                        .collectList()
+                        .map(indexes -> Map.entry(reactiveMongoTemplate.getCollectionName(type), indexes)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        var queries = Flux.fromIterable(queryShapeRecorder.shapes())
+                .concatMap(this::explain)
+                .collectList();
+
+        return Mono.zip(collections, queries, IndexReport::new);
+    }
+
+    private Mono<QueryView> explain(QueryShapeRecorder.QueryShape shape) {
+        var explain = new Document("explain", shape.sampleCommand)
+                .append("verbosity", "queryPlanner");
+
+        return reactiveMongoTemplate.executeCommand(explain)
+                .map(result -> {
+                    // an aggregation has a plan per stage that reads the collection, found under $cursor
+                    var winningPlans = new ArrayList<Object>();
+                    collectWinningPlans(result, winningPlans);
+                    if (winningPlans.isEmpty())
+                        return view(shape, false, "no query plan in the explain output");
+                    var collectionScan = winningPlans.stream().anyMatch(plan -> containsStage(plan, COLLSCAN));
+                    return view(shape, !collectionScan, collectionScan ? COLLSCAN : null);
+                })
+                .onErrorResume(ex -> Mono.just(view(shape, false, "explain failed: " + ex.getMessage())));
+    }
+
+    private static QueryView view(QueryShapeRecorder.QueryShape shape, boolean indexed, String problem) {
+        return new QueryView(shape.commandName, shape.collection, shape.shape, shape.executions.sum(), indexed, problem);
+    }
+
+    private static void collectWinningPlans(Object value, List<Object> winningPlans) {
+        if (value instanceof Document document) {
+            document.forEach((key, field) -> {
+                if ("winningPlan".equals(key))
+                    winningPlans.add(field);
+                else
+                    collectWinningPlans(field, winningPlans);
+            });
+        } else if (value instanceof List<?> list) {
+            list.forEach(element -> collectWinningPlans(element, winningPlans));
+        }
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage")))
+                return true;
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> list)
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        return false;
+    }
+
+    private static String describe(IndexField indexField) {
+        if (indexField.isText())
+            return indexField.getKey() + ":text";
+        return indexField.getKey() + ":" + indexField.getDirection();
+    }
+
+    public record IndexReport(Map<String, List<IndexView>> collections, List<QueryView> queries) {
+    }
+
+    public record IndexView(String name, List<String> fields) {
+    }
+
+    public record QueryView(String command, String collection, String shape, long executions,
+                            boolean indexed, String problem) {
+    }
+}
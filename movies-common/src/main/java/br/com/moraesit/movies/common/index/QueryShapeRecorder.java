@@ -0,0 +1,133 @@
+package br.com.moraesit.movies.common.index;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the distinct shapes of the commands sent to Mongo that select documents (find, count,
+ * findAndModify and aggregate), together with one sample of each, so they can be explained on
+ * demand. A shape keeps the field names and operators of the selecting parts of a command and
+ * drops their values.
+ */
+public class QueryShapeRecorder implements CommandListener {
+
+    /**
+     * The parts of each command that decide which index it can use.
+     */
+    private static final Map<String, List<String>> SHAPE_FIELDS = Map.of(
+            "find", List.of("filter", "sort"),
+            "count", List.of("query"),
+            "findAndModify", List.of("query", "sort"),
+            "aggregate", List.of("pipeline"));
+
+    /**
+     * Parts the server requires to explain a command, though they do not change its plan.
+     */
+    private static final Map<String, List<String>> EXPLAIN_FIELDS = Map.of(
+            "findAndModify", List.of("update", "remove"),
+            "aggregate", List.of("cursor"));
+
+    private static final BsonString VALUE = new BsonString("?");
+
+    private final ConcurrentMap<String, QueryShape> shapes = new ConcurrentHashMap<>();
+
+    private final int maxShapes;
+
+    public QueryShapeRecorder(IndexProperties indexProperties) {
+        this.maxShapes = indexProperties.getMaxRecordedQueryShapes();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        var commandName = event.getCommandName();
+        var shapeFields = SHAPE_FIELDS.get(commandName);
+        if (shapeFields == null)
+            return;
+
+        var command = event.getCommand();
+        var target = command.get(commandName);
+        // database level aggregations ({aggregate: 1}) have no collection to index
+        if (target == null || !target.isString())
+            return;
+
+        var collection = target.asString().getValue();
+        var shape = new BsonDocument();
+        for (var field : shapeFields) {
+            if (command.containsKey(field))
+                shape.put(field, shapeOf(command.get(field)));
+        }
+        var key = commandName + ":" + collection + shape.toJson();
+
+        var queryShape = shapes.get(key);
+        if (queryShape == null) {
+            if (shapes.size() >= maxShapes)
+                return;
+            queryShape = shapes.computeIfAbsent(key, k -> new QueryShape(commandName, collection, shape.toJson(),
+                    sample(command, commandName, shapeFields)));
+        }
+        queryShape.executions.increment();
+    }
+
+    public Collection<QueryShape> shapes() {
+        return shapes.values();
+    }
+
+    /**
+     * Documents keep their keys; arrays of documents ($or, pipelines) keep their elements; every
+     * other value, including the lists of $in, becomes a placeholder.
+     */
+    static BsonValue shapeOf(BsonValue value) {
+        if (value.isDocument()) {
+            var shape = new BsonDocument();
+            value.asDocument().forEach((key, field) -> shape.put(key, shapeOf(field)));
+            return shape;
+        }
+        if (value.isArray() && !value.asArray().isEmpty() && value.asArray().get(0).isDocument()) {
+            var shape = new BsonArray();
+            value.asArray().forEach(element -> shape.add(shapeOf(element)));
+            return shape;
+        }
+        return VALUE;
+    }
+
+    private static BsonDocument sample(BsonDocument command, String commandName, List<String> shapeFields) {
+        var sample = new BsonDocument(commandName, command.get(commandName));
+        for (var field : shapeFields) {
+            if (command.containsKey(field))
+                sample.put(field, command.get(field));
+        }
+        for (var field : EXPLAIN_FIELDS.getOrDefault(commandName, List.of())) {
+            if (command.containsKey(field))
+                sample.put(field, command.get(field));
+        }
+        // the event's command is only valid while the listener runs
+        return sample.clone();
+    }
+
+    public static class QueryShape {
+
+        final String commandName;
+        final String collection;
+        final String shape;
+        final BsonDocument sampleCommand;
+        final LongAdder executions = new LongAdder();
+
+        QueryShape(String commandName, String collection, String shape, BsonDocument sampleCommand) {
+            this.commandName = commandName;
+            this.collection = collection;
+            this.shape = shape;
+            this.sampleCommand = sampleCommand;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.moraesit.movies.common.mongo;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+
+import java.util.Set;
+
+/**
+ * Keeps the command and collection tags of the default provider but drops the per client
+ * cluster id and the server address, which only multiply series without telling routes apart.
+ */
+public class LowCardinalityMongoCommandTagsProvider implements MongoCommandTagsProvider {
+
+    private static final Set<String> DROPPED_TAGS = Set.of("cluster.id", "server.address");
+
+    private final MongoCommandTagsProvider delegate = new DefaultMongoCommandTagsProvider();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        delegate.commandStarted(event);
+    }
+
+    @Override
+    public Iterable<Tag> commandTags(CommandEvent event) {
+        var tags = Tags.empty();
+        for (var tag : delegate.commandTags(event)) {
+            if (!DROPPED_TAGS.contains(tag.getKey()))
+                tags = tags.and(tag);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.moraesit.movies.common.mongo;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts connection checkouts that failed, by reason. A TIMEOUT here means requests queued on
+ * an exhausted pool for longer than the wait queue timeout.
+ */
+public class MongoCheckoutFailureListener implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public MongoCheckoutFailureListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Counter.builder("mongodb.driver.pool.checkout.failed")
+                .description("Connection checkouts that failed")
+                .tag("reason", event.getReason().name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
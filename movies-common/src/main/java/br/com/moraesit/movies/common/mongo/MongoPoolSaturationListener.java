@@ -0,0 +1,80 @@
+package br.com.moraesit.movies.common.mongo;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Share of each server's pool that is checked out, from 0 to 1. The driver's own pool metrics
+ * report sizes but not the configured maximum, so they do not show how close a pool is to
+ * making requests wait.
+ */
+public class MongoPoolSaturationListener implements ConnectionPoolListener {
+
+    static final String METRIC_NAME = "mongodb.driver.pool.saturation";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ServerId, Pool> pools = new ConcurrentHashMap<>();
+
+    public MongoPoolSaturationListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        var pool = new Pool(event.getSettings().getMaxSize());
+        pool.gauge = Gauge.builder(METRIC_NAME, pool, Pool::saturation)
+                .description("Checked out connections over the pool's maximum size")
+                .tag("server.address", event.getServerId().getAddress().toString())
+                .register(meterRegistry);
+        pools.put(event.getServerId(), pool);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        var pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null)
+            pool.checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        var pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null)
+            pool.checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        var pool = pools.remove(event.getServerId());
+        if (pool != null)
+            meterRegistry.remove(pool.gauge);
+    }
+
+    private static class Pool {
+
+        private final int maxSize;
+
+        private final AtomicInteger checkedOut = new AtomicInteger();
+
+        private Gauge gauge;
+
+        Pool(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        double saturation() {
+            return maxSize > 0 ? (double) checkedOut.get() / maxSize : 0;
+        }
+    }
+}
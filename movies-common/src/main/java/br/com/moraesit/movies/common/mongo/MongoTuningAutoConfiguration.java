@@ -0,0 +1,87 @@
+package br.com.moraesit.movies.common.mongo;
+
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link MongoTuningProperties} to the driver, logs the pool and socket settings the
+ * client is built with and adds the pool and command metrics every service reports.
+ */
+@Slf4j
+@AutoConfiguration(before = MongoReactiveAutoConfiguration.class,
+        beforeName = "org.springframework.boot.actuate.autoconfigure.metrics.mongo.MongoMetricsAutoConfiguration")
+@ConditionalOnClass({MongoClientSettings.class, MeterRegistry.class})
+@EnableConfigurationProperties(MongoTuningProperties.class)
+public class MongoTuningAutoConfiguration {
+
+    @Bean
+    public MongoPoolSaturationListener mongoPoolSaturationListener(MeterRegistry meterRegistry) {
+        return new MongoPoolSaturationListener(meterRegistry);
+    }
+
+    @Bean
+    public MongoCheckoutFailureListener mongoCheckoutFailureListener(MeterRegistry meterRegistry) {
+        return new MongoCheckoutFailureListener(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new LowCardinalityMongoCommandTagsProvider();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTuningCustomizer(MongoTuningProperties properties,
+                                                                     MongoPoolSaturationListener saturationListener,
+                                                                     MongoCheckoutFailureListener checkoutFailureListener) {
+        var pool = properties.getPool();
+        var socket = properties.getSocket();
+        return builder -> builder
+                .applyToConnectionPoolSettings(settings -> settings
+                        .maxSize(pool.getMaxSize())
+                        .minSize(pool.getMinSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnecting(pool.getMaxConnecting())
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(saturationListener)
+                        .addConnectionPoolListener(checkoutFailureListener))
+                .applyToSocketSettings(settings -> settings
+                        .connectTimeout((int) socket.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) socket.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(settings -> settings
+                        .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Runs after every other customizer, so what it logs is what the client gets.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public MongoClientSettingsBuilderCustomizer mongoSettingsLogger() {
+        return builder -> {
+            var settings = builder.build();
+            var pool = settings.getConnectionPoolSettings();
+            var socket = settings.getSocketSettings();
+            log.info("mongo client: pool maxSize={}, minSize={}, maxWaitTime={}ms, maxConnecting={}, maxConnectionIdleTime={}ms, "
+                            + "maxConnectionLifeTime={}ms; socket connectTimeout={}ms, readTimeout={}ms; serverSelectionTimeout={}ms",
+                    pool.getMaxSize(), pool.getMinSize(), pool.getMaxWaitTime(TimeUnit.MILLISECONDS), pool.getMaxConnecting(),
+                    pool.getMaxConnectionIdleTime(TimeUnit.MILLISECONDS), pool.getMaxConnectionLifeTime(TimeUnit.MILLISECONDS),
+                    socket.getConnectTimeout(TimeUnit.MILLISECONDS), socket.getReadTimeout(TimeUnit.MILLISECONDS),
+                    settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.moraesit.movies.common.mongo;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and socket settings of the Mongo driver. The defaults are the driver's own;
+ * each profile sets the values it is sized for.
+ */
+@Data
+@ConfigurationProperties(prefix = "movies.mongo")
+public class MongoTuningProperties {
+
+    private final Pool pool = new Pool();
+
+    private final Socket socket = new Socket();
+
+    /**
+     * How long an operation waits for a reachable server before it fails.
+     */
+    private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+    @Data
+    public static class Pool {
+
+        /**
+         * Connections per server; requests beyond it wait in the queue.
+         */
+        private int maxSize = 100;
+
+        /**
+         * Connections kept open even when idle, so a burst does not start with handshakes.
+         */
+        private int minSize = 0;
+
+        /**
+         * How long a request waits for a pooled connection before failing with a timeout.
+         */
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+
+        /**
+         * Connections being established at once per server.
+         */
+        private int maxConnecting = 2;
+
+        /**
+         * Idle time after which a connection is closed; zero keeps it.
+         */
+        private Duration maxConnectionIdleTime = Duration.ZERO;
+
+        /**
+         * Age after which a connection is closed; zero keeps it.
+         */
+        private Duration maxConnectionLifeTime = Duration.ZERO;
+    }
+
+    @Data
+    public static class Socket {
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        /**
+         * How long a single read may block; zero waits forever.
+         */
+        private Duration readTimeout = Duration.ZERO;
+    }
+}
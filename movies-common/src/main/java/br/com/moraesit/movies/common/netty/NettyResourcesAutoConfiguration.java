@@ -0,0 +1,93 @@
+package br.com.moraesit.movies.common.netty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.reactive.ReactiveWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Replaces the global Reactor Netty resources with loops sized by {@link NettyResourcesProperties}
+ * and reports how many tasks are queued on them. Boot's server and default client connector back off
+ * their own resource factory for this one. Also turns on the server metrics, with bounded uri tags.
+ */
+@Slf4j
+@AutoConfiguration(before = {ReactiveWebServerFactoryAutoConfiguration.class, ClientHttpConnectorAutoConfiguration.class})
+@ConditionalOnClass({HttpServer.class, MeterRegistry.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(NettyResourcesProperties.class)
+public class NettyResourcesAutoConfiguration {
+
+    static final String LOOP_PREFIX = "movies-http";
+
+    @Bean
+    public ReactorResourceFactory reactorServerResourceFactory(NettyResourcesProperties properties) {
+        var factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setLoopResourcesSupplier(() -> LoopResources.create(LOOP_PREFIX, selectThreads(properties),
+                workerThreads(properties), true));
+        return factory;
+    }
+
+    /**
+     * Tasks waiting on the server loops; a queue that keeps growing means a handler is blocking
+     * or the loops are undersized, well before latency percentiles show it.
+     */
+    @Bean
+    public MeterBinder eventLoopMetrics(ReactorResourceFactory resourceFactory, NettyResourcesProperties properties) {
+        return registry -> {
+            Gauge.builder("http.server.eventloop.pending.tasks", resourceFactory,
+                            NettyResourcesAutoConfiguration::pendingTasks)
+                    .description("Tasks queued on the server event loops")
+                    .register(registry);
+            Gauge.builder("http.server.eventloop.threads", properties, NettyResourcesAutoConfiguration::workerThreads)
+                    .description("Server event loop threads")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public NettyServerCustomizer nettyServerMetricsCustomizer(NettyResourcesProperties properties) {
+        var uriTagMapper = new UriTagMapper(properties.getMetricsUriPrefixes());
+        return httpServer -> httpServer.metrics(true, uriTagMapper);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> nettyResourcesLogger(NettyResourcesProperties properties) {
+        return event -> log.info("netty loops: workerThreads={}, selectThreads={}",
+                workerThreads(properties), properties.getSelectThreads() > 0 ? properties.getSelectThreads() : "shared");
+    }
+
+    /**
+     * The server runs on the native transport whenever it is available, as Boot's factory asks for it.
+     */
+    private static double pendingTasks(ReactorResourceFactory factory) {
+        long pending = 0;
+        for (EventExecutor executor : factory.getLoopResources().onServer(true))
+            if (executor instanceof SingleThreadEventExecutor loop)
+                pending += loop.pendingTasks();
+        return pending;
+    }
+
+    static int workerThreads(NettyResourcesProperties properties) {
+        return properties.getWorkerThreads() > 0 ? properties.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT;
+    }
+
+    static int selectThreads(NettyResourcesProperties properties) {
+        return properties.getSelectThreads() > 0 ? properties.getSelectThreads() : -1;
+    }
+}
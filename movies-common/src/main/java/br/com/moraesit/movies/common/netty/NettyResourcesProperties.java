@@ -0,0 +1,32 @@
+package br.com.moraesit.movies.common.netty;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event loop sizing of the Reactor Netty resources the server runs on, and the uris its metrics
+ * are tagged with.
+ */
+@Data
+@ConfigurationProperties(prefix = "movies.netty")
+public class NettyResourcesProperties {
+
+    /**
+     * Threads serving connections; zero uses Reactor Netty's default of one per core.
+     */
+    private int workerThreads = 0;
+
+    /**
+     * Threads accepting connections; zero lets the worker threads accept them too.
+     */
+    private int selectThreads = 0;
+
+    /**
+     * Path prefixes the server metrics are tagged with, typically one per route; requests under
+     * none of them are tagged UNKNOWN.
+     */
+    private List<String> metricsUriPrefixes = new ArrayList<>(List.of("/actuator"));
+}
@@ -0,0 +1,35 @@
+package br.com.moraesit.movies.common.netty;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reactor Netty tags its server metrics with the raw request uri, one series per distinct uri.
+ * This maps a uri to the longest configured path prefix it falls under, dropping ids and query
+ * strings, and every other uri to {@value #UNKNOWN}, so a scanner cannot grow the registry.
+ */
+public class UriTagMapper implements Function<String, String> {
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final List<String> prefixes;
+
+    public UriTagMapper(List<String> prefixes) {
+        this.prefixes = prefixes.stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+    }
+
+    @Override
+    public String apply(String uri) {
+        var end = uri.indexOf('?');
+        var path = end >= 0 ? uri.substring(0, end) : uri;
+        for (var prefix : prefixes) {
+            // a whole segment has to match, /v1/movieinfos is not a prefix of /v1/movieinfosx
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/'))
+                return prefix;
+        }
+        return UNKNOWN;
+    }
+}
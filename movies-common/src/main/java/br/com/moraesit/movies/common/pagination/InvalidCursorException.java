@@ -0,0 +1,8 @@
+package br.com.moraesit.movies.common.pagination;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
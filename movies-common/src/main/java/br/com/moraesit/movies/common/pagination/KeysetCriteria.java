@@ -0,0 +1,29 @@
+package br.com.moraesit.movies.common.pagination;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * The query side of a {@link KeysetCursor}, for collections whose {@code _id} is either a
+ * generated ObjectId or a client supplied string.
+ */
+public final class KeysetCriteria {
+
+    private static final int BSON_OBJECT_ID = 7;
+
+    private KeysetCriteria() {
+    }
+
+    /**
+     * Documents whose {@code _id} sorts after {@code afterId} in an ascending {@code _id} sort.
+     */
+    public static Criteria idAfter(String afterId) {
+        if (ObjectId.isValid(afterId))
+            return where("_id").gt(new ObjectId(afterId));
+        // client supplied ids are stored as strings, which BSON orders before every ObjectId;
+        // $gt only compares values of the same type, so the ObjectIds have to be added back
+        return new Criteria().orOperator(where("_id").gt(afterId), where("_id").type(BSON_OBJECT_ID));
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.moraesit.movies.common.pagination;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Value
+public class KeysetPage<T> {
+
+    List<T> items;
+    String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched one element more than {@code pageSize}; the extra
+     * element only signals that another page exists and is not returned.
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int pageSize, Function<T, String> idExtractor) {
+        if (fetched.size() <= pageSize)
+            return new KeysetPage<>(fetched, null);
+        var items = fetched.subList(0, pageSize);
+        return new KeysetPage<>(items, KeysetCursor.encode(idExtractor.apply(items.get(pageSize - 1))));
+    }
+}
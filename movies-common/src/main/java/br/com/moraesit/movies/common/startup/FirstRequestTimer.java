@@ -0,0 +1,85 @@
+package br.com.moraesit.movies.common.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Records how long after the JVM started the first request was answered. Unlike
+ * {@code application.ready.time} it includes the JVM's own startup and whatever the first request
+ * still had to initialize, which is what a scaled out instance makes its first caller wait for.
+ */
+@Slf4j
+public class FirstRequestTimer implements WebFilter, Ordered {
+
+    static final String METRIC_NAME = "application.first.request.time";
+
+    private final List<PathPattern> excludedPaths;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LongSupplier uptimeMillis;
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    public FirstRequestTimer(StartupProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, () -> ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    FirstRequestTimer(StartupProperties properties, MeterRegistry meterRegistry, LongSupplier uptimeMillis) {
+        this.excludedPaths = properties.getFirstRequestExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.meterRegistry = meterRegistry;
+        this.uptimeMillis = uptimeMillis;
+    }
+
+    @Override
+    public int getOrder() {
+        // behind the concurrency limit, so a shed request is not taken for a served one
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (recorded.get() || isExcluded(exchange.getRequest().getPath().pathWithinApplication()))
+            return chain.filter(exchange);
+
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> record(exchange));
+    }
+
+    private void record(ServerWebExchange exchange) {
+        if (!recorded.compareAndSet(false, true))
+            return;
+
+        var uptime = uptimeMillis.getAsLong();
+        TimeGauge.builder(METRIC_NAME, () -> uptime, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start until the first request was answered")
+                .register(meterRegistry);
+        log.info("first request {} {} answered {}ms after JVM start", exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath(), uptime);
+    }
+
+    private boolean isExcluded(PathContainer path) {
+        for (var pattern : excludedPaths) {
+            if (pattern.matches(path))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.moraesit.movies.common.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+
+/**
+ * Support for the {@code fast-start} profile: keeps the request path eager when lazy
+ * initialization is on, times the first request and drives and ends the AppCDS training run.
+ */
+@Slf4j
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupAutoConfiguration {
+
+    /**
+     * Controllers and routes stay eager, and with them the services, repositories and the Mongo
+     * client they depend on, so the first request does not pay for creating them. Everything
+     * else waits until it is first used.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> RouterFunction.class.isAssignableFrom(beanType)
+                || AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+
+    @Bean
+    public FirstRequestTimer firstRequestTimer(StartupProperties properties, MeterRegistry meterRegistry) {
+        return new FirstRequestTimer(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "movies.startup", name = "exit-on-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady(StartupProperties properties) {
+        return event -> {
+            sendTrainingRequests(event.getApplicationContext(), properties);
+            log.info("exit-on-ready is set, closing after startup");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+
+    /**
+     * Runs on the thread publishing the ready event, so blocking here keeps the application up
+     * until every request has been answered.
+     */
+    private static void sendTrainingRequests(ApplicationContext context, StartupProperties properties) {
+        if (properties.getTrainingUrls().isEmpty() || !(context instanceof WebServerApplicationContext webServerContext))
+            return;
+
+        var webClient = WebClient.create("http://localhost:" + webServerContext.getWebServer().getPort());
+        for (var url : properties.getTrainingUrls()) {
+            try {
+                var status = webClient.get()
+                        .uri(url)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                        .block(properties.getTrainingRequestTimeout());
+                log.info("training request {} answered {}", url, status);
+            } catch (RuntimeException ex) {
+                log.warn("training request {} failed: {}", url, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.moraesit.movies.common.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "movies.startup")
+public class StartupProperties {
+
+    /**
+     * Close the application as soon as it is ready; used by the AppCDS training run, which only
+     * needs the classes loaded during startup.
+     */
+    private boolean exitOnReady = false;
+
+    /**
+     * Paths requested once the application is ready and before it exits on ready, so the classes
+     * serving the hot routes (codecs, handlers, the Mongo driver's command path) are archived too.
+     * The requests reach the database: the training run needs a reachable Mongo, which the eager
+     * controllers need anyway to build the Mongo client. A failed request is logged and skipped.
+     */
+    private List<String> trainingUrls = new ArrayList<>();
+
+    /**
+     * How long each training request may take.
+     */
+    private Duration trainingRequestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Requests that do not count as the first one, such as the readiness probes.
+     */
+    private List<String> firstRequestExcludedPaths = new ArrayList<>(List.of("/actuator/**"));
+}
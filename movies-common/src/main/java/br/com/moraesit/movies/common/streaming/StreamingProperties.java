@@ -0,0 +1,27 @@
+package br.com.moraesit.movies.common.streaming;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bound by each service under its own prefix; the endpoint names are the keys of {@link #batchSize}.
+ */
+@Data
+public class StreamingProperties {
+
+    /**
+     * Mongo cursor batch size, also used as the request rate towards the cursor.
+     */
+    private int defaultBatchSize = 256;
+
+    /**
+     * Per endpoint overrides of {@link #defaultBatchSize}.
+     */
+    private Map<String, Integer> batchSize = new HashMap<>();
+
+    public int batchSizeFor(String endpoint) {
+        return batchSize.getOrDefault(endpoint, defaultBatchSize);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.moraesit.movies.common.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts conditional requests by outcome: answered with 304 or 412, or passed through to a
+ * full response.
+ */
+public class ConditionalRequestMetricsFilter implements WebFilter {
+
+    static final String METRIC_NAME = "http.server.requests.conditional";
+
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalRequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(HttpHeaders.IF_NONE_MATCH) && !headers.containsKey(HttpHeaders.IF_MATCH)
+                && !headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE))
+            return chain.filter(exchange);
+
+        exchange.getResponse().beforeCommit(() -> {
+            counter(exchange).increment();
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private Counter counter(ServerWebExchange exchange) {
+        var status = exchange.getResponse().getStatusCode();
+        final String outcome;
+        if (status == HttpStatus.NOT_MODIFIED)
+            outcome = "not_modified";
+        else if (status == HttpStatus.PRECONDITION_FAILED)
+            outcome = "precondition_failed";
+        else
+            outcome = "passed";
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return Counter.builder(METRIC_NAME)
+                .description("Requests carrying If-None-Match, If-Match or If-Modified-Since, by outcome")
+                .tag("method", exchange.getRequest().getMethodValue())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.moraesit.movies.common.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConditionalRequestsAutoConfiguration {
+
+    @Bean
+    public ConditionalRequestMetricsFilter conditionalRequestMetricsFilter(MeterRegistry meterRegistry) {
+        return new ConditionalRequestMetricsFilter(meterRegistry);
+    }
+}
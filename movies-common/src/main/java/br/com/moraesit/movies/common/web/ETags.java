@@ -0,0 +1,28 @@
+package br.com.moraesit.movies.common.web;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Strong ETag of a single document, its {@code @Version}; null for documents written before
+     * they had one.
+     */
+    public static String strong(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Weak ETag of a composed response, such as a page, from a fingerprint of what it is made of
+     * (ids and versions, a cursor), so it can be computed without serializing the body.
+     */
+    public static String weak(CharSequence fingerprint) {
+        var hash = DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + hash + "\"";
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.moraesit.movies.common.web;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The fields a client asked for with {@code ?fields=name,year}, checked against the fields a
+ * resource has, so that the query can project them and the rest is never read or encoded.
+ *
+ * @param fields the selected property names; empty selects every field
+ */
+public record FieldSelection(Set<String> fields) {
+
+    public static final FieldSelection ALL = new FieldSelection(Set.of());
+
+    public FieldSelection {
+        fields = Collections.unmodifiableSet(new LinkedHashSet<>(fields));
+    }
+
+    /**
+     * A missing or blank value selects every field; any name outside {@code allowed} is rejected.
+     */
+    public static FieldSelection parse(String value, Set<String> allowed) {
+        if (value == null || value.isBlank())
+            return ALL;
+        var fields = new LinkedHashSet<String>();
+        var unknown = new TreeSet<String>();
+        for (var field : value.split(",")) {
+            field = field.trim();
+            if (field.isEmpty())
+                continue;
+            if (allowed.contains(field))
+                fields.add(field);
+            else
+                unknown.add(field);
+        }
+        if (!unknown.isEmpty())
+            throw new InvalidFieldsException("fields: unknown " + String.join(",", unknown)
+                    + ", allowed are " + String.join(",", new TreeSet<>(allowed)));
+        return fields.isEmpty() ? ALL : new FieldSelection(fields);
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public boolean includes(String field) {
+        return isAll() || fields.contains(field);
+    }
+
+    /**
+     * This selection plus fields the server itself needs, such as a version for an ETag.
+     */
+    public FieldSelection including(String... required) {
+        if (isAll())
+            return this;
+        var fields = new LinkedHashSet<>(this.fields);
+        Collections.addAll(fields, required);
+        return new FieldSelection(fields);
+    }
+
+    public String[] toArray() {
+        return fields.toArray(String[]::new);
+    }
+}
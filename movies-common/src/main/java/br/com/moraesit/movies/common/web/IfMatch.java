@@ -0,0 +1,45 @@
+package br.com.moraesit.movies.common.web;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The If-Match precondition of a write, reduced to the document version it requires so it can
+ * go into the write's own query instead of a separate read.
+ *
+ * @param present whether the request had an If-Match header at all
+ * @param any     {@code If-Match: *}, the document only has to exist
+ * @param version the version the document must have; null when absent, any or unsatisfiable
+ */
+public record IfMatch(boolean present, boolean any, Long version) {
+
+    public static final IfMatch NONE = new IfMatch(false, false, null);
+
+    /**
+     * Only the first strong ETag is used. Weak ETags never match under If-Match, so a header
+     * with nothing else is unsatisfiable and the write can be refused without touching Mongo.
+     */
+    public static IfMatch from(HttpHeaders headers) {
+        var values = headers.get(HttpHeaders.IF_MATCH);
+        if (values == null || values.isEmpty())
+            return NONE;
+        for (var value : values) {
+            for (var etag : value.split(",")) {
+                etag = etag.trim();
+                if (etag.equals("*"))
+                    return new IfMatch(true, true, null);
+                if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+                    try {
+                        return new IfMatch(true, false, Long.valueOf(etag.substring(1, etag.length() - 1)));
+                    } catch (NumberFormatException ex) {
+                        // not one of ours, keep looking
+                    }
+                }
+            }
+        }
+        return new IfMatch(true, false, null);
+    }
+
+    public boolean isUnsatisfiable() {
+        return present && !any && version == null;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.moraesit.movies.common.web;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
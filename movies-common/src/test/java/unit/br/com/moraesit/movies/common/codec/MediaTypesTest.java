@@ -0,0 +1,33 @@
+package br.com.moraesit.movies.common.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MediaTypesTest {
+
+    @Test
+    void negotiate_noAccept() {
+        assertEquals(MediaType.APPLICATION_JSON, MediaTypes.negotiate(List.of(), MediaTypes.STREAM_TYPES));
+    }
+
+    @Test
+    void negotiate_wildcard() {
+        assertEquals(MediaType.APPLICATION_JSON, MediaTypes.negotiate(List.of(MediaType.ALL), MediaTypes.STREAM_TYPES));
+    }
+
+    @Test
+    void negotiate_binary() {
+        var accept = MediaType.parseMediaTypes("application/json;q=0.5, application/x-jackson-smile");
+        assertEquals(MediaTypes.APPLICATION_SMILE, MediaTypes.negotiate(accept, MediaTypes.VALUE_TYPES));
+    }
+
+    @Test
+    void negotiate_unsupported() {
+        var accept = List.of(MediaType.APPLICATION_NDJSON);
+        assertEquals(MediaType.APPLICATION_JSON, MediaTypes.negotiate(accept, MediaTypes.VALUE_TYPES));
+    }
+}
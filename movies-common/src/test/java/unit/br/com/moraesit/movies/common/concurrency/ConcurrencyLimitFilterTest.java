@@ -0,0 +1,130 @@
+package br.com.moraesit.movies.common.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Sinks.Empty<Void> pending = Sinks.empty();
+
+    private final WebFilterChain slowChain = exchange -> pending.asMono();
+
+    private final WebFilterChain fastChain = exchange -> Mono.empty();
+
+    @Test
+    void rejectsOverTheLimit() {
+        var filter = new ConcurrencyLimitFilter(properties(2), meterRegistry);
+
+        filter.filter(exchange("/v1/movieinfos"), slowChain).subscribe();
+        filter.filter(exchange("/v1/movieinfos"), slowChain).subscribe();
+
+        var rejected = exchange("/v1/movieinfos");
+        StepVerifier.create(filter.filter(rejected, fastChain)).verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+        assertEquals(1, meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METRIC).tag("priority", "high").counter().count());
+
+        pending.tryEmitEmpty();
+        assertEquals(0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    @Test
+    void shedsLowPriorityFirst() {
+        var filter = new ConcurrencyLimitFilter(properties(4), meterRegistry);
+
+        filter.filter(exchange("/v1/movieinfos/bulk"), slowChain).subscribe();
+        filter.filter(exchange("/v1/movieinfos/bulk"), slowChain).subscribe();
+
+        var bulk = exchange("/v1/movieinfos/bulk");
+        StepVerifier.create(filter.filter(bulk, fastChain)).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, bulk.getResponse().getStatusCode());
+
+        var read = exchange("/v1/movieinfos/abc");
+        StepVerifier.create(filter.filter(read, fastChain)).verifyComplete();
+        assertNull(read.getResponse().getStatusCode());
+    }
+
+    @Test
+    void skipsExcludedPaths() {
+        var filter = new ConcurrencyLimitFilter(properties(1), meterRegistry);
+
+        filter.filter(exchange("/v1/movieinfos"), slowChain).subscribe();
+
+        var health = exchange("/actuator/health");
+        StepVerifier.create(filter.filter(health, fastChain)).verifyComplete();
+        assertNull(health.getResponse().getStatusCode());
+    }
+
+    @Test
+    void cancelledRequestsBackOff() {
+        var filter = new ConcurrencyLimitFilter(properties(100, 10, 100), meterRegistry);
+
+        filter.filter(exchange("/v1/movieinfos"), slowChain).subscribe().dispose();
+
+        assertEquals(90, filter.getLimit());
+    }
+
+    @Test
+    void longStreamDoesNotShrinkTheLimit() throws InterruptedException {
+        var filter = new ConcurrencyLimitFilter(properties(20, 10, 100), meterRegistry);
+        var streamEnd = Sinks.<Void>empty();
+        WebFilterChain streamChain = exchange -> exchange.getResponse().writeWith(
+                Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("{}\n".getBytes(StandardCharsets.UTF_8)))
+                        .concatWith(streamEnd.asMono().then(Mono.<DataBuffer>empty())));
+
+        // enough requests in flight for the samples to count
+        for (int i = 0; i < 10; i++)
+            filter.filter(exchange("/v1/movieinfos/abc"), slowChain).subscribe();
+        filter.filter(exchange("/v1/movieinfos"), streamChain).subscribe();
+        pending.tryEmitEmpty();
+        for (int i = 0; i < 50; i++)
+            StepVerifier.create(filter.filter(exchange("/v1/movieinfos/abc"), fastChain)).verifyComplete();
+        var limitWhileStreaming = filter.getLimit();
+
+        Thread.sleep(50);
+        streamEnd.tryEmitEmpty();
+
+        assertTrue(filter.getLimit() >= limitWhileStreaming, "limit " + filter.getLimit());
+        assertTrue(filter.getLimit() >= 20, "limit " + filter.getLimit());
+        assertEquals(0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    private static ConcurrencyLimitProperties properties(int limit) {
+        return properties(limit, limit, limit);
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit, int minLimit, int maxLimit) {
+        var properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(minLimit);
+        properties.setMaxLimit(maxLimit);
+        properties.setLowPriorityPaths(List.of("/v1/movieinfos/bulk"));
+        return properties;
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
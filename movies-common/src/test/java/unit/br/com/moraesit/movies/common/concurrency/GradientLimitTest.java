@@ -0,0 +1,60 @@
+package br.com.moraesit.movies.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void growsWhileLatencyHolds() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties());
+
+        for (int i = 0; i < 20; i++)
+            limit.onSample(RTT, limit.getLimit());
+
+        assertTrue(limit.getLimit() > 100, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties());
+
+        for (int i = 0; i < 20; i++)
+            limit.onSample(RTT, 10);
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties());
+        for (int i = 0; i < 100; i++)
+            limit.onSample(RTT, limit.getLimit());
+        var before = limit.getLimit();
+
+        for (int i = 0; i < 20; i++)
+            limit.onSample(RTT * 10, limit.getLimit());
+
+        assertTrue(limit.getLimit() < before, limit.getLimit() + " < " + before);
+    }
+
+    @Test
+    void backsOffWithinBounds() {
+        var properties = new ConcurrencyLimitProperties();
+        properties.setMinLimit(20);
+        var limit = new GradientLimit(properties);
+
+        limit.onDropped();
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 100; i++)
+            limit.onDropped();
+        assertEquals(20, limit.getLimit());
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.moraesit.movies.common.index;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryShapeRecorderTest {
+
+    private final QueryShapeRecorder recorder = new QueryShapeRecorder(new IndexProperties());
+
+    private final ConnectionDescription connection = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress("localhost", 27017)));
+
+    @Test
+    void sameShapeWithOtherValuesIsCountedOnce() {
+        started("find", "{find: 'review', filter: {movieInfoId: 1}, sort: {_id: 1}}");
+        started("find", "{find: 'review', filter: {movieInfoId: 2}, sort: {_id: 1}}");
+        started("find", "{find: 'review', filter: {movieInfoId: {$in: [1, 2]}}, sort: {_id: 1}}");
+
+        var executions = recorder.shapes().stream()
+                .map(shape -> shape.executions.sum())
+                .sorted()
+                .toList();
+        assertEquals(List.of(1L, 2L), executions);
+    }
+
+    @Test
+    void recordsCommandsBesidesFind() {
+        started("aggregate", "{aggregate: 'review', pipeline: [{$match: {movieInfoId: {$in: [1, 2]}}}, "
+                + "{$group: {_id: '$movieInfoId', count: {$sum: 1}}}], cursor: {}}");
+        started("count", "{count: 'movieInfo', query: {year: 2005}}");
+        started("findAndModify", "{findAndModify: 'movieInfo', query: {_id: 'abc', version: 1}, "
+                + "update: {$set: {name: 'x'}}, new: true}");
+
+        var commands = recorder.shapes().stream().map(shape -> shape.commandName).sorted().toList();
+        assertEquals(List.of("aggregate", "count", "findAndModify"), commands);
+
+        var findAndModify = recorder.shapes().stream()
+                .filter(shape -> shape.commandName.equals("findAndModify"))
+                .findFirst().orElseThrow();
+        assertTrue(findAndModify.sampleCommand.containsKey("update"), "explain needs the update");
+        assertFalse(findAndModify.shape.contains("abc"), findAndModify.shape);
+    }
+
+    @Test
+    void ignoresWritesAndDatabaseCommands() {
+        started("insert", "{insert: 'review', documents: [{_id: 'abc'}]}");
+        started("aggregate", "{aggregate: 1, pipeline: [{$currentOp: {}}], cursor: {}}");
+
+        assertTrue(recorder.shapes().isEmpty());
+    }
+
+    private void started(String commandName, String command) {
+        recorder.commandStarted(new CommandStartedEvent(1, connection, "test", commandName, BsonDocument.parse(command)));
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.moraesit.movies.common.mongo;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MongoPoolSaturationListenerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MongoPoolSaturationListener listener = new MongoPoolSaturationListener(registry);
+
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+    @Test
+    void tracksCheckedOutShareOfMaxSize() {
+        listener.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId,
+                ConnectionPoolSettings.builder().maxSize(4).build()));
+        var connection = new ConnectionId(serverId);
+
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+        listener.connectionCheckedIn(new ConnectionCheckedInEvent(connection));
+
+        assertEquals(0.5, registry.get(MongoPoolSaturationListener.METRIC_NAME)
+                .tag("server.address", "localhost:27017").gauge().value());
+    }
+
+    @Test
+    void removesGaugeWhenPoolCloses() {
+        listener.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId,
+                ConnectionPoolSettings.builder().maxSize(4).build()));
+
+        listener.connectionPoolClosed(new ConnectionPoolClosedEvent(serverId));
+
+        assertNull(registry.find(MongoPoolSaturationListener.METRIC_NAME).gauge());
+    }
+}
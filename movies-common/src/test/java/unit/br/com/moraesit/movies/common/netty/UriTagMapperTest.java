@@ -0,0 +1,29 @@
+package br.com.moraesit.movies.common.netty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UriTagMapperTest {
+
+    private final UriTagMapper uriTagMapper = new UriTagMapper(List.of("/actuator", "/actuator/prometheus", "/v1/movieinfos"));
+
+    @Test
+    void knownPrefixes() {
+        assertEquals("/v1/movieinfos", uriTagMapper.apply("/v1/movieinfos"));
+        assertEquals("/v1/movieinfos", uriTagMapper.apply("/v1/movieinfos/abc"));
+        assertEquals("/v1/movieinfos", uriTagMapper.apply("/v1/movieinfos?year=2005"));
+        assertEquals("/actuator/prometheus", uriTagMapper.apply("/actuator/prometheus"));
+        assertEquals("/actuator", uriTagMapper.apply("/actuator/health/readiness"));
+    }
+
+    @Test
+    void everythingElseIsUnknown() {
+        assertEquals(UriTagMapper.UNKNOWN, uriTagMapper.apply("/"));
+        assertEquals(UriTagMapper.UNKNOWN, uriTagMapper.apply("/foo/bar"));
+        assertEquals(UriTagMapper.UNKNOWN, uriTagMapper.apply("/v1/movieinfosx"));
+        assertEquals(UriTagMapper.UNKNOWN, uriTagMapper.apply("/v1"));
+    }
+}
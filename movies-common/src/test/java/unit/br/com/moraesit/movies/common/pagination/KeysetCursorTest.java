@@ -0,0 +1,62 @@
+package br.com.moraesit.movies.common.pagination;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode() {
+        var id = new ObjectId().toHexString();
+        assertEquals(id, KeysetCursor.decode(KeysetCursor.encode(id)));
+        assertEquals("client/id", KeysetCursor.decode(KeysetCursor.encode("client/id")));
+    }
+
+    @Test
+    void decode_invalid() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(""));
+    }
+
+    @Test
+    void pageSize() {
+        assertEquals(1, KeysetCursor.pageSize(0));
+        assertEquals(20, KeysetCursor.pageSize(20));
+        assertEquals(KeysetCursor.MAX_PAGE_SIZE, KeysetCursor.pageSize(KeysetCursor.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void page() {
+        var lastPage = KeysetPage.of(List.of("a", "b"), 2, id -> id);
+        assertEquals(List.of("a", "b"), lastPage.getItems());
+        assertNull(lastPage.getNextCursor());
+
+        var page = KeysetPage.of(List.of("a", "b", "c"), 2, id -> id);
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertEquals("b", KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void idAfter_objectId() {
+        var id = new ObjectId();
+        var criteria = KeysetCriteria.idAfter(id.toHexString()).getCriteriaObject();
+        assertEquals(new Document("_id", new Document("$gt", id)), criteria);
+    }
+
+    @Test
+    void idAfter_clientId() {
+        // strings sort before every ObjectId, so the ObjectIds follow a client id whatever their value
+        var criteria = KeysetCriteria.idAfter("abc").getCriteriaObject();
+        var or = criteria.getList("$or", Document.class);
+        assertEquals(2, or.size());
+        assertEquals(new Document("_id", new Document("$gt", "abc")), or.get(0));
+        assertEquals(7, ((Document) or.get(1).get("_id")).get("$type"));
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.moraesit.movies.common.startup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FirstRequestTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong uptime = new AtomicLong();
+
+    private final FirstRequestTimer timer = new FirstRequestTimer(new StartupProperties(), meterRegistry, uptime::get);
+
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    @Test
+    void recordsOnlyTheFirstRequest() {
+        uptime.set(1500);
+        StepVerifier.create(timer.filter(exchange("/v1/movieinfos"), chain)).verifyComplete();
+        uptime.set(9000);
+        StepVerifier.create(timer.filter(exchange("/v1/movieinfos"), chain)).verifyComplete();
+
+        assertEquals(1500, meterRegistry.get(FirstRequestTimer.METRIC_NAME).timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void ignoresProbes() {
+        StepVerifier.create(timer.filter(exchange("/actuator/health/readiness"), chain)).verifyComplete();
+
+        assertNull(meterRegistry.find(FirstRequestTimer.METRIC_NAME).timeGauge());
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.moraesit.movies.common.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldSelectionTest {
+
+    private static final Set<String> ALLOWED = Set.of("name", "year", "cast", "version");
+
+    @Test
+    void absent() {
+        assertSame(FieldSelection.ALL, FieldSelection.parse(null, ALLOWED));
+        assertSame(FieldSelection.ALL, FieldSelection.parse(" , ", ALLOWED));
+        assertTrue(FieldSelection.ALL.includes("cast"));
+    }
+
+    @Test
+    void selected() {
+        var fields = FieldSelection.parse("name, year,name", ALLOWED);
+        assertEquals(Set.of("name", "year"), fields.fields());
+        assertTrue(fields.includes("year"));
+        assertFalse(fields.includes("cast"));
+    }
+
+    @Test
+    void including() {
+        var fields = FieldSelection.parse("name", ALLOWED).including("version");
+        assertEquals(Set.of("name", "version"), fields.fields());
+        assertSame(FieldSelection.ALL, FieldSelection.ALL.including("version"));
+    }
+
+    @Test
+    void unknown() {
+        var ex = assertThrows(InvalidFieldsException.class, () -> FieldSelection.parse("name,budget,_id", ALLOWED));
+        assertEquals("fields: unknown _id,budget, allowed are cast,name,version,year", ex.getMessage());
+    }
+}
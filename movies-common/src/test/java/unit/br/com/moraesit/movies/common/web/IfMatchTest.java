@@ -0,0 +1,43 @@
+package br.com.moraesit.movies.common.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IfMatchTest {
+
+    @Test
+    void absent() {
+        var ifMatch = IfMatch.from(new HttpHeaders());
+        assertFalse(ifMatch.present());
+        assertFalse(ifMatch.isUnsatisfiable());
+    }
+
+    @Test
+    void strong() {
+        assertEquals(3L, IfMatch.from(ifMatch("\"3\"")).version());
+        assertEquals(3L, IfMatch.from(ifMatch("W/\"2\", \"3\"")).version());
+    }
+
+    @Test
+    void any() {
+        var ifMatch = IfMatch.from(ifMatch("*"));
+        assertTrue(ifMatch.any());
+        assertFalse(ifMatch.isUnsatisfiable());
+    }
+
+    @Test
+    void weakOnly() {
+        assertTrue(IfMatch.from(ifMatch("W/\"3\"")).isUnsatisfiable());
+        assertTrue(IfMatch.from(ifMatch("\"abc\"")).isUnsatisfiable());
+    }
+
+    private static HttpHeaders ifMatch(String value) {
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MATCH, value);
+        return headers;
+    }
+}
@@ -2,10 +2,16 @@ package br.com.moraesit.movies.info.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MoviesInfoServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(MoviesInfoServiceApplication.class, args);
+        var application = new SpringApplication(MoviesInfoServiceApplication.class);
+        // keeps the startup steps for the actuator startup endpoint
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
     }
 }
@@ -0,0 +1,24 @@
+package br.com.moraesit.movies.info.service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "movieinfo.bulk")
+public class BulkIngestProperties {
+
+    /**
+     * Documents sent per unordered insertMany.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * insertMany calls allowed in flight at once.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Upper bound on the per-item errors echoed back; counts keep going past it.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,13 @@
+package br.com.moraesit.movies.info.service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+
+/**
+ * Fills {@code @LastModifiedDate} on every save, which the Last-Modified response header is
+ * built from. Kept off the application class so the web slice tests do not load it.
+ */
+@Configuration
+@EnableReactiveMongoAuditing
+public class MongoAuditingConfig {
+}
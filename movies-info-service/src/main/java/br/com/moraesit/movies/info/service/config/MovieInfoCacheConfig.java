@@ -0,0 +1,29 @@
+package br.com.moraesit.movies.info.service.config;
+
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MovieInfoCacheConfig {
+
+    public static final String MOVIE_INFO_CACHE = "movieInfoById";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "movieinfo.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AsyncCache<String, MovieInfo> movieInfoCache(MovieInfoCacheProperties properties, MeterRegistry meterRegistry) {
+        AsyncCache<String, MovieInfo> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), MOVIE_INFO_CACHE);
+        return cache;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.moraesit.movies.info.service.config;
+
+import br.com.moraesit.movies.common.streaming.StreamingProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StreamingConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "movieinfo.streaming")
+    public StreamingProperties streamingProperties() {
+        return new StreamingProperties();
+    }
+}
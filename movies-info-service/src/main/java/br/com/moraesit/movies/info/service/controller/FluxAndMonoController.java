@@ -1,31 +1,56 @@
 package br.com.moraesit.movies.info.service.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 
 @RestController
 public class FluxAndMonoController {
 
+    private static final Flux<Integer> NUMBERS = Flux.just(1, 2, 3);
+
+    private static final Mono<String> HELLO_WORLD = Mono.just("hello-world");
+
+    private final Flux<Long> ticks;
+
+    @Autowired
+    public FluxAndMonoController(@Value("${movieinfo.stream.tick-period:1s}") Duration tickPeriod) {
+        this(tickPeriod, Schedulers.parallel());
+    }
+
+    /**
+     * One timer serves every open stream: it starts with the first subscriber and stops with the
+     * last one, so a stream joining late sees the current tick rather than starting from zero.
+     */
+    public FluxAndMonoController(Duration tickPeriod, Scheduler scheduler) {
+        this.ticks = Flux.interval(tickPeriod, scheduler)
+                .publish()
+                .refCount();
+    }
+
     @GetMapping("/flux")
     public Flux<Integer> flux() {
-        return Flux.just(1, 2, 3)
-                .log();
+        return NUMBERS;
     }
 
     @GetMapping("/mono")
     public Mono<String> helloWorldMono() {
-        return Mono.just("hello-world")
-                .log();
+        return HELLO_WORLD;
     }
 
+    /**
+     * A subscriber that cannot keep up misses ticks instead of stalling the shared timer for the others.
+     */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Long> stream() {
-        return Flux.interval(Duration.ofSeconds(1))
-                .log();
+        return ticks.onBackpressureDrop();
     }
 }
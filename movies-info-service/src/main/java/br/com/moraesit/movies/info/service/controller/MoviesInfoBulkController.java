@@ -0,0 +1,31 @@
+package br.com.moraesit.movies.info.service.controller;
+
+import br.com.moraesit.movies.info.service.domain.BulkIngestResult;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.service.MoviesInfoBulkService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/v1")
+public class MoviesInfoBulkController {
+
+    private final MoviesInfoBulkService moviesInfoBulkService;
+
+    public MoviesInfoBulkController(MoviesInfoBulkService moviesInfoBulkService) {
+        this.moviesInfoBulkService = moviesInfoBulkService;
+    }
+
+    /**
+     * Accepts a JSON array or NDJSON body; either way the elements are decoded one at a time.
+     */
+    @PostMapping(value = "/movieinfos/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<BulkIngestResult> bulkIngest(@RequestBody Flux<MovieInfo> movieInfos) {
+        return moviesInfoBulkService.ingest(movieInfos);
+    }
+}
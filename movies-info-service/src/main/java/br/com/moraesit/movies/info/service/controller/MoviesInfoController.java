@@ -1,14 +1,25 @@
 package br.com.moraesit.movies.info.service.controller;
 
+import br.com.moraesit.movies.common.codec.MediaTypes;
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.web.ETags;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.common.web.IfMatch;
+import br.com.moraesit.movies.info.service.domain.BatchGetItem;
+import br.com.moraesit.movies.info.service.domain.BatchGetRequest;
 import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.domain.MovieInfoPatch;
 import br.com.moraesit.movies.info.service.service.MoviesInfoService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1")
@@ -20,42 +31,152 @@ public class MoviesInfoController {
         this.moviesInfoService = moviesInfoService;
     }
 
-    @GetMapping("/movieinfos")
-    public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year) {
+    /**
+     * Streamed, so only in the types that can be written value by value; CBOR is offered by the
+     * paged variant, which answers a collected list.
+     */
+    @GetMapping(value = "/movieinfos", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        var fieldSelection = FieldSelection.parse(fields, MovieInfo.FIELDS);
         if (year != null)
-            return moviesInfoService.getMovieInfoByYear(year);
-        return moviesInfoService.getAllMovieInfos();
+            return moviesInfoService.getMovieInfoByYear(year, fieldSelection);
+        return moviesInfoService.getAllMovieInfos(fieldSelection);
+    }
+
+    /**
+     * The weak ETag covers the ids and versions on the page, the next cursor and the selected
+     * fields, so an unchanged page is answered with 304 before its body is encoded. The version is
+     * always read for it and dropped again when it was not selected.
+     */
+    @GetMapping(value = "/movieinfos", params = "limit")
+    public Mono<ResponseEntity<List<MovieInfo>>> getMovieInfosPage(@RequestParam(value = "year", required = false) Integer year,
+                                                                   @RequestParam("limit") int limit,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "fields", required = false) String fields) {
+        var fieldSelection = FieldSelection.parse(fields, MovieInfo.FIELDS);
+        return moviesInfoService.getMovieInfosPage(year, after, limit, fieldSelection.including("version"))
+                .map(page -> {
+                    var response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null)
+                        response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+                    response.eTag(pageETag(page.getItems(), page.getNextCursor(), fieldSelection));
+                    if (!fieldSelection.includes("version"))
+                        page.getItems().forEach(movieInfo -> movieInfo.setVersion(null));
+                    return response.body(page.getItems());
+                });
     }
 
     @GetMapping("/movieinfos/search")
-    public Flux<MovieInfo> searchMovieInfos(MovieInfo movieInfo) {
-        return moviesInfoService.searchMovieInfos(movieInfo);
+    public Flux<MovieInfo> searchMovieInfos(MovieInfo movieInfo,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        return moviesInfoService.searchMovieInfos(movieInfo, FieldSelection.parse(fields, MovieInfo.FIELDS));
+    }
+
+    @GetMapping(value = "/movieinfos/search", params = "q")
+    public Flux<MovieInfo> searchMovieInfos(@RequestParam("q") String text,
+                                            @RequestParam(value = "page", defaultValue = "0") int page,
+                                            @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        return moviesInfoService.searchMovieInfos(text, page, limit, FieldSelection.parse(fields, MovieInfo.FIELDS));
     }
 
+    /**
+     * Tagged with the document version and last modified date; a matching If-None-Match or
+     * If-Modified-Since gets a 304 without a body.
+     */
     @GetMapping("/movieinfos/{movieInfoId}")
     public Mono<ResponseEntity<MovieInfo>> getMovieInfoById(@PathVariable String movieInfoId) {
         return moviesInfoService.getMovieInfoById(movieInfoId)
-                .map(ResponseEntity.ok()::body)
+                .map(MoviesInfoController::okWithValidators)
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    /**
+     * One entry per requested id, in request order, each marked found or missing.
+     */
+    @PostMapping(value = "/movieinfos/batch-get", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public Flux<BatchGetItem> batchGetMovieInfos(@RequestBody @Valid BatchGetRequest batchGetRequest) {
+        return moviesInfoService.getMovieInfosByIds(batchGetRequest.getMovieInfoIds());
+    }
+
     @PostMapping("/movieinfos")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<MovieInfo> addMovieInfo(@RequestBody @Valid MovieInfo movieInfo) {
         return moviesInfoService.addMovieInfo(movieInfo);
     }
 
+    /**
+     * With If-Match the version goes into the update's own query, so a stale or missing document
+     * is answered with 412 from that single round trip.
+     */
     @PutMapping("/movieinfos/{movieInfoId}")
     public Mono<ResponseEntity<MovieInfo>> updateMovieInfo(@PathVariable String movieInfoId,
+                                                           @RequestHeader HttpHeaders headers,
                                                            @RequestBody MovieInfo updateMovieInfo) {
-        return moviesInfoService.updateMovieInfo(movieInfoId, updateMovieInfo)
-                .map(ResponseEntity.ok()::body)
-                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+        var ifMatch = IfMatch.from(headers);
+        if (ifMatch.isUnsatisfiable())
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        return moviesInfoService.updateMovieInfo(movieInfoId, ifMatch.version(), updateMovieInfo)
+                .map(MoviesInfoController::okWithValidators)
+                .switchIfEmpty(Mono.fromSupplier(() -> noMatch(ifMatch)));
     }
 
+    @PatchMapping("/movieinfos/{movieInfoId}")
+    public Mono<ResponseEntity<MovieInfo>> patchMovieInfo(@PathVariable String movieInfoId,
+                                                          @RequestHeader HttpHeaders headers,
+                                                          @RequestBody @Valid MovieInfoPatch movieInfoPatch) {
+        var ifMatch = IfMatch.from(headers);
+        if (ifMatch.isUnsatisfiable())
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        return moviesInfoService.patchMovieInfo(movieInfoId, ifMatch.version(), movieInfoPatch)
+                .map(MoviesInfoController::okWithValidators)
+                .switchIfEmpty(Mono.fromSupplier(() -> noMatch(ifMatch)));
+    }
+
+    /**
+     * An unconditional delete of a missing id stays a 204; with If-Match it is a 412.
+     */
     @DeleteMapping("/movieinfos/{movieInfoId}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public Mono<Void> deleteMovieInfo(@PathVariable String movieInfoId) {
-        return moviesInfoService.deleteMovieInfo(movieInfoId);
+    public Mono<ResponseEntity<Void>> deleteMovieInfo(@PathVariable String movieInfoId,
+                                                      @RequestHeader HttpHeaders headers) {
+        var ifMatch = IfMatch.from(headers);
+        if (!ifMatch.present())
+            return moviesInfoService.deleteMovieInfo(movieInfoId)
+                    .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+        if (ifMatch.isUnsatisfiable())
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        return moviesInfoService.deleteMovieInfo(movieInfoId, ifMatch.version())
+                .map(deleted -> ResponseEntity.noContent().<Void>build())
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+    }
+
+    private static ResponseEntity<MovieInfo> okWithValidators(MovieInfo movieInfo) {
+        var response = ResponseEntity.ok();
+        var etag = ETags.strong(movieInfo.getVersion());
+        if (etag != null)
+            response.eTag(etag);
+        if (movieInfo.getLastModified() != null)
+            response.lastModified(movieInfo.getLastModified());
+        return response.body(movieInfo);
+    }
+
+    /**
+     * A write that matched nothing: without If-Match the id is missing, with it the precondition
+     * failed, whether the document is gone or has a newer version.
+     */
+    private static <T> ResponseEntity<T> noMatch(IfMatch ifMatch) {
+        if (ifMatch.present())
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        return ResponseEntity.notFound().build();
+    }
+
+    private static String pageETag(List<MovieInfo> movieInfos, String nextCursor, FieldSelection fields) {
+        var fingerprint = new StringBuilder();
+        for (var movieInfo : movieInfos)
+            fingerprint.append(movieInfo.getMovieInfoId()).append(':').append(movieInfo.getVersion()).append(',');
+        return ETags.weak(fingerprint.append(nextCursor).append(';').append(fields.fields()));
     }
 }
@@ -0,0 +1,25 @@
+package br.com.moraesit.movies.info.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetItem {
+
+    public enum Status {
+        FOUND, MISSING
+    }
+
+    private String movieInfoId;
+    private Status status;
+    private MovieInfo movieInfo;
+
+    public static BatchGetItem of(String movieInfoId, MovieInfo movieInfo) {
+        return movieInfo != null
+                ? new BatchGetItem(movieInfoId, Status.FOUND, movieInfo)
+                : new BatchGetItem(movieInfoId, Status.MISSING, null);
+    }
+}
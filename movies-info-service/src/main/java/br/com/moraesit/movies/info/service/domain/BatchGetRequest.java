@@ -0,0 +1,22 @@
+package br.com.moraesit.movies.info.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+
+    public static final int MAX_IDS = 500;
+
+    @NotEmpty(message = "batchGet.movieInfoIds must be present")
+    @Size(max = MAX_IDS, message = "batchGet.movieInfoIds must not have more than " + MAX_IDS + " ids")
+    private List<@NotBlank(message = "batchGet.movieInfoIds must not be blank") String> movieInfoIds;
+}
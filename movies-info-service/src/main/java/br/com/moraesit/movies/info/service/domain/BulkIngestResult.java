@@ -0,0 +1,30 @@
+package br.com.moraesit.movies.info.service.domain;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkIngestResult {
+
+    private long received;
+    private long inserted;
+    private long rejected;
+    private long failed;
+    private List<BulkItemResult> errors = new ArrayList<>();
+
+    public BulkIngestResult add(BulkItemResult itemResult, int maxReportedErrors) {
+        received++;
+        switch (itemResult.getStatus()) {
+            case INSERTED -> inserted++;
+            case REJECTED -> rejected++;
+            case FAILED -> failed++;
+        }
+        if (itemResult.getStatus() != BulkItemResult.Status.INSERTED && errors.size() < maxReportedErrors)
+            errors.add(itemResult);
+        return this;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.moraesit.movies.info.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    public enum Status {
+        INSERTED, REJECTED, FAILED
+    }
+
+    private long index;
+    private String movieInfoId;
+    private Status status;
+    private String message;
+}
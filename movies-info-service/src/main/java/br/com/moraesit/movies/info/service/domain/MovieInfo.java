@@ -1,30 +1,57 @@
 package br.com.moraesit.movies.info.service.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@CompoundIndex(name = "year_id", def = "{'year': 1, '_id': 1}")
 public class MovieInfo {
 
+    /**
+     * What {@code ?fields=} may select; fields left out of a projection are null and not written.
+     */
+    public static final Set<String> FIELDS = Set.of("movieInfoId", "name", "year", "cast", "releaseDate",
+            "version", "lastModified");
+
     @Id
     private String movieInfoId;
+    @Indexed
+    @TextIndexed(weight = 3)
     @NotBlank(message = "movieInfo.name must be present")
     private String name;
     @NotNull
     @Positive(message = "movieInfo.year must be a positive")
     private Integer year;
+    @TextIndexed
     private List<@NotBlank(message = "movieInfo.cast must be present") String> cast;
     private LocalDate releaseDate;
+    @Version
+    private Long version;
+    @LastModifiedDate
+    private Instant lastModified;
+
+    public MovieInfo(String movieInfoId, String name, Integer year, List<String> cast, LocalDate releaseDate) {
+        this(movieInfoId, name, year, cast, releaseDate, null, null);
+    }
 }
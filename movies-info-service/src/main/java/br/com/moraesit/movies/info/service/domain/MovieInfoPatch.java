@@ -0,0 +1,52 @@
+package br.com.moraesit.movies.info.service.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partial update of a {@link MovieInfo}: only the fields present in the request are written.
+ * {@code cast} replaces the whole list, while {@code castAdd} and {@code castRemove} edit it in place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfoPatch {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "movieInfo.name must be present")
+    private String name;
+    @Positive(message = "movieInfo.year must be a positive")
+    private Integer year;
+    private LocalDate releaseDate;
+    private List<@NotBlank(message = "movieInfo.cast must be present") String> cast;
+    private List<@NotBlank(message = "movieInfo.cast must be present") String> castAdd;
+    private List<@NotBlank(message = "movieInfo.cast must be present") String> castRemove;
+
+    @JsonIgnore
+    @AssertTrue(message = "movieInfo.cast cannot be combined with castAdd or castRemove")
+    public boolean isCastReplacementExclusive() {
+        return cast == null || (castAdd == null && castRemove == null);
+    }
+
+    // Mongo rejects a $push and a $pull on the same path within one update
+    @JsonIgnore
+    @AssertTrue(message = "movieInfo.castAdd cannot be combined with castRemove")
+    public boolean isCastEditExclusive() {
+        return castAdd == null || castRemove == null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "movieInfo patch must change at least one field")
+    public boolean isNotEmpty() {
+        return name != null || year != null || releaseDate != null
+                || cast != null || castAdd != null || castRemove != null;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.moraesit.movies.info.service.repository;
+
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import org.springframework.data.domain.Example;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read methods take the {@link FieldSelection} as a projection; the id is always returned.
+ */
+public interface MovieInfoRepositoryCustom {
+
+    /**
+     * Keyset page ordered by {@code _id}: returns up to {@code limit} documents whose id sorts
+     * after {@code afterId} (or from the start when it is null), optionally restricted to a year.
+     */
+    Flux<MovieInfo> findPage(Integer year, String afterId, int limit, FieldSelection fields);
+
+    /**
+     * Streams every document (optionally restricted to a year) as the cursor produces it, fetching
+     * {@code batchSize} documents per round trip and never requesting more than that downstream.
+     */
+    Flux<MovieInfo> streamAll(Integer year, int batchSize, FieldSelection fields);
+
+    /**
+     * Full text search over name and cast through the text index, best matches first.
+     */
+    Flux<MovieInfo> searchText(String text, int page, int limit, FieldSelection fields);
+
+    /**
+     * Query by example, as {@code findAll(Example)} runs it, with a projection.
+     */
+    Flux<MovieInfo> findAlike(Example<MovieInfo> example, FieldSelection fields);
+
+    /**
+     * Applies the update operators to one document in a single findAndModify, bumping its version
+     * and last modified date, and returns the document as it is after the update. Empty when the
+     * id does not exist or, when {@code expectedVersion} is given, when the stored version no
+     * longer matches it.
+     */
+    Mono<MovieInfo> updateAndGet(String movieInfoId, Long expectedVersion, Update update);
+
+    /**
+     * Removes the document in one findAndRemove and returns it, with the same matching rules as
+     * {@link #updateAndGet}.
+     */
+    Mono<MovieInfo> deleteAndGet(String movieInfoId, Long expectedVersion);
+}
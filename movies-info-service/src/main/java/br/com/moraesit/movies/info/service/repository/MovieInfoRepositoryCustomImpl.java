@@ -0,0 +1,90 @@
+package br.com.moraesit.movies.info.service.repository;
+
+import br.com.moraesit.movies.common.pagination.KeysetCriteria;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class MovieInfoRepositoryCustomImpl implements MovieInfoRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public MovieInfoRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<MovieInfo> findPage(Integer year, String afterId, int limit, FieldSelection fields) {
+        var query = project(new Query(), fields);
+        if (year != null)
+            query.addCriteria(where("year").is(year));
+        if (afterId != null)
+            query.addCriteria(KeysetCriteria.idAfter(afterId));
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return reactiveMongoTemplate.find(query, MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfo> streamAll(Integer year, int batchSize, FieldSelection fields) {
+        var query = project(new Query(), fields);
+        if (year != null)
+            query.addCriteria(where("year").is(year));
+        query.cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, MovieInfo.class)
+                .limitRate(batchSize);
+    }
+
+    @Override
+    public Flux<MovieInfo> searchText(String text, int page, int limit, FieldSelection fields) {
+        var query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore();
+        project(query, fields).skip((long) page * limit).limit(limit);
+        return reactiveMongoTemplate.find(query, MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfo> findAlike(Example<MovieInfo> example, FieldSelection fields) {
+        return reactiveMongoTemplate.find(project(new Query(new Criteria().alike(example)), fields), MovieInfo.class);
+    }
+
+    /**
+     * Property names are mapped to document fields by the template, movieInfoId to {@code _id}.
+     */
+    private static Query project(Query query, FieldSelection fields) {
+        if (!fields.isAll())
+            query.fields().include(fields.toArray());
+        return query;
+    }
+
+    @Override
+    public Mono<MovieInfo> updateAndGet(String movieInfoId, Long expectedVersion, Update update) {
+        update.inc("version", 1)
+                .currentDate("lastModified");
+        return reactiveMongoTemplate.findAndModify(byIdAndVersion(movieInfoId, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), MovieInfo.class);
+    }
+
+    @Override
+    public Mono<MovieInfo> deleteAndGet(String movieInfoId, Long expectedVersion) {
+        return reactiveMongoTemplate.findAndRemove(byIdAndVersion(movieInfoId, expectedVersion), MovieInfo.class);
+    }
+
+    private static Query byIdAndVersion(String movieInfoId, Long expectedVersion) {
+        var query = new Query(where("_id").is(movieInfoId));
+        if (expectedVersion != null)
+            query.addCriteria(where("version").is(expectedVersion));
+        return query;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.moraesit.movies.info.service.service;
+
+import br.com.moraesit.movies.info.service.config.BulkIngestProperties;
+import br.com.moraesit.movies.info.service.domain.BulkIngestResult;
+import br.com.moraesit.movies.info.service.domain.BulkItemResult;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class MoviesInfoBulkService {
+
+    private final Validator validator;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final BulkIngestProperties bulkIngestProperties;
+
+    public MoviesInfoBulkService(Validator validator, ReactiveMongoTemplate reactiveMongoTemplate,
+                                 BulkIngestProperties bulkIngestProperties) {
+        this.validator = validator;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.bulkIngestProperties = bulkIngestProperties;
+    }
+
+    /**
+     * Validates and inserts the movie infos as they are decoded. Valid elements are grouped into
+     * unordered insertMany batches so one bad document never blocks the rest of its batch.
+     */
+    public Mono<BulkIngestResult> ingest(Flux<MovieInfo> movieInfos) {
+        var maxReportedErrors = bulkIngestProperties.getMaxReportedErrors();
+        return movieInfos
+                .index((index, movieInfo) -> new BulkItem(index, movieInfo, validate(movieInfo)))
+                .groupBy(BulkItem::isValid)
+                .flatMap(items -> items.key()
+                        ? items.buffer(bulkIngestProperties.getBatchSize())
+                        .flatMap(this::insertBatch, bulkIngestProperties.getConcurrency())
+                        : items.map(BulkItem::rejected))
+                .reduceWith(BulkIngestResult::new, (result, itemResult) -> result.add(itemResult, maxReportedErrors))
+                .doOnNext(result -> {
+                    result.getErrors().sort(Comparator.comparingLong(BulkItemResult::getIndex));
+                    log.info("bulk ingest finished: received={}, inserted={}, rejected={}, failed={}",
+                            result.getReceived(), result.getInserted(), result.getRejected(), result.getFailed());
+                });
+    }
+
+    private String validate(MovieInfo movieInfo) {
+        var constraintViolations = validator.validate(movieInfo);
+        if (constraintViolations.isEmpty())
+            return null;
+        return constraintViolations
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private Flux<BulkItemResult> insertBatch(List<BulkItem> batch) {
+        var converter = reactiveMongoTemplate.getConverter();
+        var documents = new ArrayList<Document>(batch.size());
+        var now = Instant.now();
+        for (var item : batch) {
+            // insertMany bypasses the mapping callbacks, so version and audit fields are set here
+            item.movieInfo().setVersion(0L);
+            item.movieInfo().setLastModified(now);
+            var document = new Document();
+            converter.write(item.movieInfo(), document);
+            documents.add(document);
+        }
+
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(MovieInfo.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(insertManyResult -> results(batch, documents, Map.of()))
+                .onErrorResume(MongoBulkWriteException.class, ex -> Mono.just(results(batch, documents,
+                        ex.getWriteErrors().stream()
+                                .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage, (first, second) -> first)))))
+                .onErrorResume(ex -> {
+                    log.error("bulk insert of {} documents failed: {}", batch.size(), ex.getMessage(), ex);
+                    return Mono.just(batch.stream().map(item -> item.failed(ex.getMessage())).collect(Collectors.toList()));
+                })
+                .flatMapIterable(Function.identity());
+    }
+
+    private static List<BulkItemResult> results(List<BulkItem> batch, List<Document> documents, Map<Integer, String> writeErrors) {
+        var results = new ArrayList<BulkItemResult>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var item = batch.get(i);
+            var writeError = writeErrors.get(i);
+            if (writeError != null) {
+                results.add(item.failed(writeError));
+            } else {
+                // the driver assigns the generated _id to the inserted document
+                var id = documents.get(i).get("_id");
+                var movieInfoId = id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+                results.add(new BulkItemResult(item.index(), movieInfoId, BulkItemResult.Status.INSERTED, null));
+            }
+        }
+        return results;
+    }
+
+    private record BulkItem(long index, MovieInfo movieInfo, String violations) {
+
+        boolean isValid() {
+            return violations == null;
+        }
+
+        BulkItemResult rejected() {
+            return new BulkItemResult(index, movieInfo.getMovieInfoId(), BulkItemResult.Status.REJECTED, violations);
+        }
+
+        BulkItemResult failed(String message) {
+            return new BulkItemResult(index, movieInfo.getMovieInfoId(), BulkItemResult.Status.FAILED, message);
+        }
+    }
+}
@@ -1,60 +1,222 @@
 package br.com.moraesit.movies.info.service.service;
 
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.pagination.KeysetPage;
+import br.com.moraesit.movies.common.streaming.StreamingProperties;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.info.service.domain.BatchGetItem;
 import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.domain.MovieInfoPatch;
 import br.com.moraesit.movies.info.service.repository.MovieInfoRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 @Slf4j
 @Service
 public class MoviesInfoService {
 
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    private static final int INDEX_NOT_FOUND = 27;
+
+    private static final String MOVIE_INFOS = "movieinfos";
+
+    private static final String MOVIE_INFOS_BY_YEAR = "movieinfos-by-year";
+
     private final MovieInfoRepository movieInfoRepository;
 
-    public MoviesInfoService(MovieInfoRepository movieInfoRepository) {
+    private final AsyncCache<String, MovieInfo> movieInfoCache;
+
+    private final StreamingProperties streamingProperties;
+
+    private final SingleFlight<String, MovieInfo> movieInfoLookups;
+
+    public MoviesInfoService(MovieInfoRepository movieInfoRepository, Optional<AsyncCache<String, MovieInfo>> movieInfoCache,
+                             StreamingProperties streamingProperties, MeterRegistry meterRegistry) {
         this.movieInfoRepository = movieInfoRepository;
+        this.movieInfoCache = movieInfoCache.orElse(null);
+        this.streamingProperties = streamingProperties;
+        this.movieInfoLookups = new SingleFlight<>("movieInfoById", meterRegistry);
     }
 
+    /**
+     * Always an insert: a new document has no version yet, so save() never overwrites an existing
+     * id and a taken client supplied id fails with a duplicate key instead.
+     */
     public Mono<MovieInfo> addMovieInfo(MovieInfo movieInfo) {
+        movieInfo.setVersion(null);
         return movieInfoRepository.save(movieInfo);
     }
 
-    public Flux<MovieInfo> getAllMovieInfos() {
-        return movieInfoRepository.findAll();
+    public Flux<MovieInfo> getAllMovieInfos(FieldSelection fields) {
+        return movieInfoRepository.streamAll(null,
+                streamingProperties.batchSizeFor(MOVIE_INFOS), fields);
     }
 
-    public Flux<MovieInfo> searchMovieInfos(MovieInfo movieInfo) {
-        return movieInfoRepository.findAll(Example.of(movieInfo, ExampleMatcher
+    public Mono<KeysetPage<MovieInfo>> getMovieInfosPage(Integer year, String after, int limit, FieldSelection fields) {
+        var afterId = after != null ? KeysetCursor.decode(after) : null;
+        var pageSize = KeysetCursor.pageSize(limit);
+        return movieInfoRepository.findPage(year, afterId, pageSize + 1, fields)
+                .collectList()
+                .map(movieInfos -> KeysetPage.of(movieInfos, pageSize, MovieInfo::getMovieInfoId));
+    }
+
+    public Flux<MovieInfo> searchMovieInfos(MovieInfo movieInfo, FieldSelection fields) {
+        return movieInfoRepository.findAlike(Example.of(movieInfo, ExampleMatcher
                 .matching()
                 .withIgnoreCase()
                 .withIgnoreNullValues()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)));
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)), fields);
+    }
+
+    /**
+     * Ranked search through the text index on name and cast. Falls back to the case-insensitive
+     * name match of {@link #searchMovieInfos(MovieInfo, FieldSelection)} while the text index does not exist yet.
+     */
+    public Flux<MovieInfo> searchMovieInfos(String text, int page, int limit, FieldSelection fields) {
+        var pageSize = Math.min(Math.max(limit, 1), MAX_SEARCH_PAGE_SIZE);
+        var pageNumber = Math.max(page, 0);
+        return movieInfoRepository.searchText(text, pageNumber, pageSize, fields)
+                .onErrorResume(MoviesInfoService::isTextIndexMissing, ex -> {
+                    log.warn("text index missing, falling back to a regex search: {}", ex.getMessage());
+                    var example = new MovieInfo();
+                    example.setName(text);
+                    return searchMovieInfos(example, fields)
+                            .skip((long) pageNumber * pageSize)
+                            .take(pageSize);
+                });
+    }
+
+    private static boolean isTextIndexMissing(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == INDEX_NOT_FOUND)
+                return true;
+        }
+        return false;
     }
 
+    /**
+     * Concurrent lookups of the same id share one load, whether or not the cache is enabled.
+     */
     public Mono<MovieInfo> getMovieInfoById(String movieInfoId) {
-        return movieInfoRepository.findById(movieInfoId);
+        return movieInfoLookups.execute(movieInfoId, this::loadMovieInfo);
     }
 
-    public Mono<MovieInfo> updateMovieInfo(String movieInfoId, MovieInfo updateMovieInfo) {
-        return movieInfoRepository.findById(movieInfoId)
-                .flatMap(movieInfo -> {
-                    movieInfo.setName(updateMovieInfo.getName());
-                    movieInfo.setYear(updateMovieInfo.getYear());
-                    movieInfo.setCast(updateMovieInfo.getCast());
-                    movieInfo.setReleaseDate(updateMovieInfo.getReleaseDate());
-                    return movieInfoRepository.save(movieInfo);
-                });
+    /**
+     * Resolves every id with a single {@code $in} query, or only the cache misses when the cache
+     * is enabled, and answers in the order of {@code movieInfoIds}, repeated ids included.
+     */
+    public Flux<BatchGetItem> getMovieInfosByIds(List<String> movieInfoIds) {
+        var distinctIds = new LinkedHashSet<>(movieInfoIds);
+        return loadMovieInfos(distinctIds)
+                .flatMapIterable(movieInfos -> movieInfoIds.stream()
+                        .map(movieInfoId -> BatchGetItem.of(movieInfoId, movieInfos.get(movieInfoId)))
+                        .toList());
+    }
+
+    private Mono<Map<String, MovieInfo>> loadMovieInfos(Set<String> movieInfoIds) {
+        if (movieInfoCache == null)
+            return findAllById(movieInfoIds);
+        // ids the query does not return are left out of the map, so Caffeine caches nothing for them
+        return Mono.defer(() -> Mono.fromFuture(movieInfoCache
+                .getAll(movieInfoIds, (ids, executor) -> findAllById(ids).toFuture())));
+    }
+
+    private Mono<Map<String, MovieInfo>> findAllById(Iterable<? extends String> movieInfoIds) {
+        return movieInfoRepository.findAllById(Flux.fromIterable(movieInfoIds))
+                .collectMap(MovieInfo::getMovieInfoId);
+    }
+
+    private Mono<MovieInfo> loadMovieInfo(String movieInfoId) {
+        if (movieInfoCache == null)
+            return movieInfoRepository.findById(movieInfoId);
+        // copy() so that a cancelled subscriber never cancels the future shared with other callers;
+        // an empty lookup completes the future with null, which Caffeine does not keep
+        return Mono.defer(() -> Mono.fromFuture(movieInfoCache
+                .get(movieInfoId, (id, executor) -> movieInfoRepository.findById(id).toFuture())
+                .copy()));
+    }
+
+    /**
+     * Empty when the id does not exist or, with an {@code expectedVersion}, when the document has
+     * moved on since; the version is checked by the findAndModify itself, never by a prior read.
+     */
+    public Mono<MovieInfo> updateMovieInfo(String movieInfoId, Long expectedVersion, MovieInfo updateMovieInfo) {
+        var update = new Update()
+                .set("name", updateMovieInfo.getName())
+                .set("year", updateMovieInfo.getYear())
+                .set("cast", updateMovieInfo.getCast())
+                .set("releaseDate", updateMovieInfo.getReleaseDate());
+        return evictAfterWrite(movieInfoId, movieInfoRepository.updateAndGet(movieInfoId, expectedVersion, update));
+    }
+
+    /**
+     * Writes only the fields present in the patch, in one findAndModify, with the same version
+     * check as {@link #updateMovieInfo}.
+     */
+    public Mono<MovieInfo> patchMovieInfo(String movieInfoId, Long expectedVersion, MovieInfoPatch patch) {
+        var update = new Update();
+        if (patch.getName() != null)
+            update.set("name", patch.getName());
+        if (patch.getYear() != null)
+            update.set("year", patch.getYear());
+        if (patch.getReleaseDate() != null)
+            update.set("releaseDate", patch.getReleaseDate());
+        if (patch.getCast() != null)
+            update.set("cast", patch.getCast());
+        if (patch.getCastAdd() != null)
+            update.push("cast").each(patch.getCastAdd().toArray());
+        if (patch.getCastRemove() != null)
+            update.pullAll("cast", patch.getCastRemove().toArray());
+        return evictAfterWrite(movieInfoId, movieInfoRepository.updateAndGet(movieInfoId, expectedVersion, update));
     }
 
     public Mono<Void> deleteMovieInfo(String movieInfoId) {
-        return movieInfoRepository.deleteById(movieInfoId);
+        return evictAfterWrite(movieInfoId, movieInfoRepository.deleteById(movieInfoId));
+    }
+
+    /**
+     * Removes the document only while it is still at {@code expectedVersion} and returns it;
+     * empty otherwise.
+     */
+    public Mono<MovieInfo> deleteMovieInfo(String movieInfoId, Long expectedVersion) {
+        return evictAfterWrite(movieInfoId, movieInfoRepository.deleteAndGet(movieInfoId, expectedVersion));
+    }
+
+    public Flux<MovieInfo> getMovieInfoByYear(Integer year, FieldSelection fields) {
+        return movieInfoRepository.streamAll(year,
+                streamingProperties.batchSizeFor(MOVIE_INFOS_BY_YEAR), fields);
+    }
+
+    /**
+     * Invalidates the cached entry once the write has reached Mongo and before the result is
+     * emitted downstream, so a caller never observes its own write followed by a stale read.
+     * Invalidation also drops any lookup still in flight, so a load that started before the
+     * write cannot repopulate the cache with the old document.
+     */
+    private <T> Mono<T> evictAfterWrite(String movieInfoId, Mono<T> write) {
+        return write
+                .doOnTerminate(() -> evict(movieInfoId))
+                .doOnCancel(() -> evict(movieInfoId));
     }
 
-    public Flux<MovieInfo> getMovieInfoByYear(Integer year) {
-        return movieInfoRepository.findByYear(year);
+    private void evict(String movieInfoId) {
+        movieInfoLookups.forget(movieInfoId);
+        if (movieInfoCache != null)
+            movieInfoCache.synchronous().invalidate(movieInfoId);
     }
 }
@@ -0,0 +1,74 @@
+package br.com.moraesit.movies.info.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Shares one in-flight load among every concurrent caller of the same key. The load runs
+ * detached from its callers: each one subscribes to its own copy of the shared future, so a
+ * cancelled caller never cancels the load the others are waiting on. Once the load completes
+ * the key is released and the next caller starts a fresh one.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("singleflight.calls")
+                .description("Lookups that started a load")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.calls")
+                .description("Lookups that joined a load already in flight")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .description("Loads currently in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            var future = new CompletableFuture<V>();
+            var existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing.copy());
+            }
+            executed.increment();
+            // the key is released before completing, so nobody can join a load that already finished
+            Mono.defer(() -> loader.apply(key))
+                    .toFuture()
+                    .whenComplete((value, ex) -> {
+                        inFlight.remove(key, future);
+                        if (ex != null)
+                            future.completeExceptionally(ex);
+                        else
+                            future.complete(value);
+                    });
+            return Mono.fromFuture(future.copy());
+        });
+    }
+
+    /**
+     * Stops handing out the load in flight for the key, so callers arriving after a write do not
+     * join a read that started before it. The load itself still completes for its existing callers.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.moraesit.movies.info.service.controller;
+
+import br.com.moraesit.movies.info.service.domain.BulkIngestResult;
+import br.com.moraesit.movies.info.service.domain.BulkItemResult;
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.repository.MovieInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {"spring.mongodb.embedded.version=3.5.5", "movieinfo.bulk.batch-size=2"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MoviesInfoBulkControllerIntegrationTest {
+
+    @Autowired
+    MovieInfoRepository movieInfoRepository;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String BULK_URL = "/v1/movieinfos/bulk";
+
+    @BeforeEach
+    void setUp() {
+        movieInfoRepository.save(new MovieInfo("abc", "Dark Knight Rises", 2012,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20")))
+                .block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void bulkIngest() {
+        var moviesInfo = List.of(
+                new MovieInfo(null, "Batman Begins", 2005,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+
+                new MovieInfo(null, "", -2008,
+                        List.of("Christian Bale"), LocalDate.parse("2008-07-18")),
+
+                new MovieInfo("abc", "Dark Knight Rises", 2012,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20")),
+
+                new MovieInfo(null, "The Dark Knight", 2008,
+                        List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18"))
+        );
+
+        webTestClient
+                .post()
+                .uri(BULK_URL)
+                .bodyValue(moviesInfo)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(BulkIngestResult.class)
+                .consumeWith(bulkIngestResultEntityExchangeResult -> {
+                    var result = bulkIngestResultEntityExchangeResult.getResponseBody();
+                    assertNotNull(result);
+                    assertEquals(4, result.getReceived());
+                    assertEquals(2, result.getInserted());
+                    assertEquals(1, result.getRejected());
+                    assertEquals(1, result.getFailed());
+                    assertEquals(2, result.getErrors().size());
+                    assertEquals(1, result.getErrors().get(0).getIndex());
+                    assertEquals(BulkItemResult.Status.REJECTED, result.getErrors().get(0).getStatus());
+                    assertEquals("movieInfo.name must be present,movieInfo.year must be a positive",
+                            result.getErrors().get(0).getMessage());
+                    assertEquals(2, result.getErrors().get(1).getIndex());
+                    assertEquals(BulkItemResult.Status.FAILED, result.getErrors().get(1).getStatus());
+                });
+
+        assertEquals(3, movieInfoRepository.count().block());
+    }
+
+    @Test
+    void bulkIngest_ndjson() {
+        var body = """
+                {"name":"Batman Begins","year":2005,"cast":["Christian Bale"],"releaseDate":"2005-06-15"}
+                {"name":"The Dark Knight","year":2008,"cast":["Christian Bale"],"releaseDate":"2008-07-18"}
+                {"name":"Memento","year":2000,"cast":["Guy Pearce"],"releaseDate":"2000-09-05"}
+                """;
+
+        webTestClient
+                .post()
+                .uri(BULK_URL)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(BulkIngestResult.class)
+                .consumeWith(bulkIngestResultEntityExchangeResult -> {
+                    var result = bulkIngestResultEntityExchangeResult.getResponseBody();
+                    assertNotNull(result);
+                    assertEquals(3, result.getReceived());
+                    assertEquals(3, result.getInserted());
+                    assertEquals(0, result.getErrors().size());
+                });
+
+        assertEquals(4, movieInfoRepository.count().block());
+    }
+}
@@ -1,20 +1,34 @@
 package br.com.moraesit.movies.info.service.controller;
 
+import br.com.moraesit.movies.common.codec.MediaTypes;
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.info.service.domain.BatchGetItem;
+import br.com.moraesit.movies.info.service.domain.BatchGetRequest;
 import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.domain.MovieInfoPatch;
 import br.com.moraesit.movies.info.service.repository.MovieInfoRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -28,9 +42,15 @@ class MoviesInfoControllerIntegrationTest {
     @Autowired
     MovieInfoRepository movieInfoRepository;
 
+    @Autowired
+    AsyncCache<String, MovieInfo> movieInfoCache;
+
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     static String MOVIE_INFOS_URL = "/v1/movieinfos";
 
     @BeforeEach
@@ -53,6 +73,7 @@ class MoviesInfoControllerIntegrationTest {
     @AfterEach
     void tearDown() {
         movieInfoRepository.deleteAll().block();
+        movieInfoCache.synchronous().invalidateAll();
     }
 
     @Test
@@ -89,6 +110,50 @@ class MoviesInfoControllerIntegrationTest {
                 .hasSize(3);
     }
 
+    @Test
+    void getAllMovieInfos_fields() {
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("fields", "name,year")
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].movieInfoId").exists()
+                .jsonPath("$[0].name").exists()
+                .jsonPath("$[0].year").exists()
+                .jsonPath("$[0].cast").doesNotExist()
+                .jsonPath("$[0].releaseDate").doesNotExist()
+                .jsonPath("$[0].version").doesNotExist();
+    }
+
+    @Test
+    void getMovieInfosPage_fields() {
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("limit", 2)
+                .queryParam("fields", "name")
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").exists()
+                .jsonPath("$[0].cast").doesNotExist()
+                .jsonPath("$[0].version").doesNotExist();
+    }
+
     @Test
     void getMovieInfoByYear() {
         var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
@@ -105,6 +170,73 @@ class MoviesInfoControllerIntegrationTest {
                 .hasSize(1);
     }
 
+    @Test
+    void getMovieInfosPage() {
+        var movieInfoIds = new ArrayList<String>();
+        String after = null;
+        do {
+            var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                    .queryParam("limit", 1)
+                    .queryParamIfPresent("after", Optional.ofNullable(after))
+                    .buildAndExpand().toUri();
+
+            var result = webTestClient
+                    .get()
+                    .uri(uri)
+                    .exchange()
+                    .expectStatus()
+                    .is2xxSuccessful()
+                    .expectBodyList(MovieInfo.class)
+                    .hasSize(1)
+                    .returnResult();
+
+            result.getResponseBody().forEach(movieInfo -> movieInfoIds.add(movieInfo.getMovieInfoId()));
+            after = result.getResponseHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+        } while (after != null);
+
+        assertEquals(3, movieInfoIds.size());
+        assertEquals(3, new HashSet<>(movieInfoIds).size());
+    }
+
+    @Test
+    void getMovieInfosPage_invalidCursor() {
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("limit", 2)
+                .queryParam("after", "!!!")
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void mongoIndexesEndpoint() {
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("year", 2005)
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        webTestClient
+                .get()
+                .uri("/actuator/mongoindexes")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.collections.movieInfo").isArray()
+                .jsonPath("$.queries[?(@.collection == 'movieInfo')]").exists();
+    }
+
     @Test
     void searchMovieInfos() {
         var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL + "/search")
@@ -141,6 +273,121 @@ class MoviesInfoControllerIntegrationTest {
 
     }
 
+    @Test
+    void batchGetMovieInfos() {
+        // "abc" is answered from the cache and only "def" is looked up in Mongo
+        movieInfoCache.synchronous().put("abc", new MovieInfo("abc", "Dark Knight Rises", 2012, List.of(), null));
+
+        webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL + "/batch-get")
+                .bodyValue(new BatchGetRequest(List.of("def", "abc", "abc")))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(BatchGetItem.class)
+                .value(items -> {
+                    assertEquals(List.of("def", "abc", "abc"), items.stream().map(BatchGetItem::getMovieInfoId).toList());
+                    assertEquals(BatchGetItem.Status.MISSING, items.get(0).getStatus());
+                    assertEquals(BatchGetItem.Status.FOUND, items.get(1).getStatus());
+                    assertEquals("Dark Knight Rises", items.get(2).getMovieInfo().getName());
+                });
+    }
+
+    @Test
+    void batchGetMovieInfos_fromMongo() {
+        var movieInfoIds = movieInfoRepository.findAll()
+                .map(MovieInfo::getMovieInfoId)
+                .collectList()
+                .block();
+        assertNotNull(movieInfoIds);
+
+        webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL + "/batch-get")
+                .bodyValue(new BatchGetRequest(movieInfoIds))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(BatchGetItem.class)
+                .value(items -> {
+                    assertEquals(movieInfoIds, items.stream().map(BatchGetItem::getMovieInfoId).toList());
+                    items.forEach(item -> assertEquals(BatchGetItem.Status.FOUND, item.getStatus()));
+                });
+    }
+
+    @Test
+    void getMovieInfoById_cbor() {
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", "abc")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var movieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assertNotNull(movieInfo);
+                    assertEquals("Dark Knight Rises", movieInfo.getName());
+                    assertEquals(LocalDate.parse("2012-07-20"), movieInfo.getReleaseDate());
+                });
+    }
+
+    @Test
+    void getAllMovieInfos_cbor() {
+        // the CBOR encoder cannot write a stream, so only the collected page is offered in it
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.NOT_ACCEPTABLE);
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "?limit=5")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                .expectBody(new ParameterizedTypeReference<List<MovieInfo>>() {
+                })
+                .value(movieInfos -> assertEquals(3, movieInfos.size()));
+    }
+
+    @Test
+    void batchGetMovieInfos_cbor() {
+        webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL + "/batch-get")
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(new BatchGetRequest(List.of("abc")))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.NOT_ACCEPTABLE);
+    }
+
+    @Test
+    void getAllMovieInfos_smile() {
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL)
+                .accept(MediaTypes.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaTypes.APPLICATION_SMILE)
+                .expectBodyList(MovieInfo.class)
+                .hasSize(3);
+    }
+
     @Test
     void getMovieInfoById_notFound() {
         String movieInfoId = "def";
@@ -180,6 +427,107 @@ class MoviesInfoControllerIntegrationTest {
 
     }
 
+    @Test
+    void patchMovieInfo() {
+        var movieInfoId = "abc";
+
+        var movieInfoPatch = new MovieInfoPatch();
+        movieInfoPatch.setYear(2013);
+        movieInfoPatch.setCastAdd(List.of("Gary Oldman"));
+
+        webTestClient
+                .patch()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .bodyValue(movieInfoPatch)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var patchedMovieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assertNotNull(patchedMovieInfo);
+                    assertEquals("Dark Knight Rises", patchedMovieInfo.getName());
+                    assertEquals(2013, patchedMovieInfo.getYear());
+                    assertEquals(List.of("Christian Bale", "Michael Cane", "Gary Oldman"), patchedMovieInfo.getCast());
+                });
+    }
+
+    @Test
+    void patchMovieInfo_notFound() {
+        var movieInfoPatch = new MovieInfoPatch();
+        movieInfoPatch.setName("Unknown");
+
+        webTestClient
+                .patch()
+                .uri(MOVIE_INFOS_URL + "/{id}", "def")
+                .bodyValue(movieInfoPatch)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    void getMovieInfoById_afterUpdate() {
+        var movieInfoId = "abc";
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        var updateMovieInfo = new MovieInfo("abc", "Dark Knight Rises Updated", 2012,
+                List.of("Christian Bale"), LocalDate.parse("2012-07-20"));
+
+        webTestClient
+                .put()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .bodyValue(updateMovieInfo)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var movieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assertNotNull(movieInfo);
+                    assertEquals("Dark Knight Rises Updated", movieInfo.getName());
+                });
+    }
+
+    @Test
+    void getMovieInfoById_afterDelete() {
+        var movieInfoId = "abc";
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        webTestClient
+                .delete()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
     @Test
     void deleteMovieInfo() {
         var movieInfoId = "abc";
@@ -207,4 +555,106 @@ class MoviesInfoControllerIntegrationTest {
                 .expectStatus()
                 .isNotFound();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMovieInfoById_notModified() {
+        var movieInfoId = "abc";
+        var notModifiedBefore = notModifiedCount();
+
+        var etag = webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectHeader()
+                .exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(MovieInfo.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+
+        assertEquals(notModifiedBefore + 1, notModifiedCount());
+    }
+
+    private double notModifiedCount() {
+        var notModified = meterRegistry.find("http.server.requests.conditional")
+                .tag("outcome", "not_modified")
+                .counter();
+        return notModified != null ? notModified.count() : 0;
+    }
+
+    @Test
+    void updateMovieInfo_ifMatch() {
+        var movieInfoId = "abc";
+
+        var updateMovieInfo = new MovieInfo("abc", "Dark Knight Rises Updated", 2012,
+                List.of("Christian Bale"), LocalDate.parse("2012-07-20"));
+
+        webTestClient
+                .put()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifMatch("\"0\"")
+                .bodyValue(updateMovieInfo)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        // the first update already moved the document to version 1
+        webTestClient
+                .put()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifMatch("\"0\"")
+                .bodyValue(updateMovieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void deleteMovieInfo_ifMatchStale() {
+        var movieInfoId = "abc";
+
+        webTestClient
+                .delete()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifMatch("\"7\"")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+    }
+
+    @Test
+    void addMovieInfo_duplicateId() {
+        var movieInfo = new MovieInfo("abc", "Dark Knight Rises", 2012,
+                List.of("Christian Bale"), LocalDate.parse("2012-07-20"));
+
+        webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.moraesit.movies.info.service.controller;
+
+import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.repository.MovieInfoRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = "spring.mongodb.embedded.version=3.5.5")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MoviesInfoSearchIntegrationTest {
+
+    @Autowired
+    MovieInfoRepository movieInfoRepository;
+
+    @Autowired
+    AsyncCache<String, MovieInfo> movieInfoCache;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    MongoMappingContext mongoMappingContext;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String SEARCH_URL = "/v1/movieinfos/search";
+
+    @BeforeEach
+    void setUp() {
+        ensureIndexes();
+
+        var moviesInfo = List.of(
+                // "christian" in the name, which weighs three times the cast
+                new MovieInfo(null, "Christian", 2001,
+                        List.of("Someone Else"), LocalDate.parse("2001-01-01")),
+
+                new MovieInfo(null, "Batman Begins", 2005,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+
+                new MovieInfo(null, "Up", 2009,
+                        List.of("Ed Asner"), LocalDate.parse("2009-05-29"))
+        );
+
+        movieInfoRepository.saveAll(moviesInfo)
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+        movieInfoCache.synchronous().invalidateAll();
+        // the fallback test drops the text index, the other tests expect it back
+        ensureIndexes();
+    }
+
+    @Test
+    void searchMovieInfos_ranked() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(SEARCH_URL)
+                        .queryParam("q", "christian")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .value(movieInfos -> assertEquals(List.of("Christian", "Batman Begins"),
+                        movieInfos.stream().map(MovieInfo::getName).toList()));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(SEARCH_URL)
+                        .queryParam("q", "christian")
+                        .queryParam("page", "1")
+                        .queryParam("limit", "1")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .value(movieInfos -> assertEquals(List.of("Batman Begins"),
+                        movieInfos.stream().map(MovieInfo::getName).toList()));
+    }
+
+    @Test
+    void searchMovieInfos_withoutTextIndex() {
+        dropTextIndex();
+
+        // the fallback matches a part of the name, case-insensitively, and never the cast
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(SEARCH_URL)
+                        .queryParam("q", "bat")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .value(movieInfos -> assertEquals(List.of("Batman Begins"),
+                        movieInfos.stream().map(MovieInfo::getName).toList()));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(SEARCH_URL)
+                        .queryParam("q", "bale")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(0);
+    }
+
+    private void ensureIndexes() {
+        var indexOps = reactiveMongoTemplate.indexOps(MovieInfo.class);
+        Flux.fromIterable(IndexResolver.create(mongoMappingContext).resolveIndexFor(MovieInfo.class))
+                .concatMap(indexOps::ensureIndex)
+                .blockLast();
+    }
+
+    private void dropTextIndex() {
+        var indexOps = reactiveMongoTemplate.indexOps(MovieInfo.class);
+        indexOps.getIndexInfo()
+                .filter(indexInfo -> indexInfo.getIndexFields().stream().anyMatch(IndexField::isText))
+                .map(IndexInfo::getName)
+                .concatMap(indexOps::dropIndex)
+                .blockLast();
+    }
+}
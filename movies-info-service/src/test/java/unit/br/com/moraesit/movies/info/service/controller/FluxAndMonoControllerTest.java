@@ -6,9 +6,15 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @WebFluxTest(controllers = FluxAndMonoController.class)
 @AutoConfigureWebTestClient
 class FluxAndMonoControllerTest {
@@ -90,4 +96,22 @@ class FluxAndMonoControllerTest {
                 .thenCancel()
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void stream_sharedTicker() {
+        var scheduler = VirtualTimeScheduler.create();
+        var controller = new FluxAndMonoController(Duration.ofSeconds(1), scheduler);
+        var first = new ArrayList<Long>();
+        var second = new ArrayList<Long>();
+
+        var firstSubscription = controller.stream().subscribe(first::add);
+        scheduler.advanceTimeBy(Duration.ofSeconds(2));
+        var secondSubscription = controller.stream().subscribe(second::add);
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+
+        assertEquals(List.of(0L, 1L, 2L), first);
+        assertEquals(List.of(2L), second);
+    }
+}
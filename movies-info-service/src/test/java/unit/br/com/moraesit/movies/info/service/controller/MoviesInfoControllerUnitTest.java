@@ -1,16 +1,26 @@
 package br.com.moraesit.movies.info.service.controller;
 
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.pagination.KeysetPage;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.info.service.domain.BatchGetItem;
+import br.com.moraesit.movies.info.service.domain.BatchGetRequest;
 import br.com.moraesit.movies.info.service.domain.MovieInfo;
+import br.com.moraesit.movies.info.service.domain.MovieInfoPatch;
 import br.com.moraesit.movies.info.service.service.MoviesInfoService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,6 +28,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MoviesInfoController.class)
@@ -45,7 +57,7 @@ public class MoviesInfoControllerUnitTest {
                         List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20"))
         );
 
-        when(moviesInfoServiceMock.getAllMovieInfos()).thenReturn(Flux.fromIterable(moviesInfo));
+        when(moviesInfoServiceMock.getAllMovieInfos(FieldSelection.ALL)).thenReturn(Flux.fromIterable(moviesInfo));
 
         webTestClient
                 .get()
@@ -57,6 +69,79 @@ public class MoviesInfoControllerUnitTest {
                 .hasSize(3);
     }
 
+    @Test
+    void getAllMoviesInfo_ndjson() {
+        var moviesInfo = List.of(
+                new MovieInfo(null, "Batman Begins", 2005,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+
+                new MovieInfo(null, "The Dark Knight", 2008,
+                        List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18"))
+        );
+
+        when(moviesInfoServiceMock.getAllMovieInfos(FieldSelection.ALL)).thenReturn(Flux.fromIterable(moviesInfo));
+
+        var movieInfos = webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(MovieInfo.class)
+                .getResponseBody();
+
+        StepVerifier.create(movieInfos)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfosPage() {
+        var moviesInfo = List.of(
+                new MovieInfo("abc", "Dark Knight Rises", 2012,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20"))
+        );
+
+        when(moviesInfoServiceMock.getMovieInfosPage(null, null, 1, FieldSelection.ALL))
+                .thenReturn(Mono.just(new KeysetPage<>(moviesInfo, KeysetCursor.encode("abc"))));
+
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("limit", 1)
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.encode("abc"))
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getAllMovieInfos_unknownFields() {
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL)
+                .queryParam("fields", "name,budget")
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("fields: unknown budget, allowed are cast,lastModified,movieInfoId,name,releaseDate,version,year");
+
+        verifyNoInteractions(moviesInfoServiceMock);
+    }
+
     @Test
     void searchMovieInfos() {
         var moviesInfo = List.of(
@@ -67,7 +152,7 @@ public class MoviesInfoControllerUnitTest {
         var movieInfo = new MovieInfo();
         movieInfo.setName("ht");
 
-        when(moviesInfoServiceMock.searchMovieInfos(movieInfo))
+        when(moviesInfoServiceMock.searchMovieInfos(movieInfo, FieldSelection.ALL))
                 .thenReturn(Flux.fromIterable(moviesInfo));
 
         var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL + "/search")
@@ -84,6 +169,33 @@ public class MoviesInfoControllerUnitTest {
                 .hasSize(1);
     }
 
+    @Test
+    void searchMovieInfos_text() {
+        var moviesInfo = List.of(
+                new MovieInfo(null, "The Dark Knight", 2008,
+                        List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+
+                new MovieInfo("abc", "Dark Knight Rises", 2012,
+                        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20"))
+        );
+
+        when(moviesInfoServiceMock.searchMovieInfos("dark knight", 0, 20, FieldSelection.ALL))
+                .thenReturn(Flux.fromIterable(moviesInfo));
+
+        var uri = UriComponentsBuilder.fromUriString(MOVIE_INFOS_URL + "/search")
+                .queryParam("q", "dark knight")
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
     @Test
     void getMovieById() {
         var movieInfoId = "abc";
@@ -106,6 +218,28 @@ public class MoviesInfoControllerUnitTest {
                 });
     }
 
+    @Test
+    void getMovieById_notModified() {
+        var movieInfoId = "abc";
+        var movieInfo = new MovieInfo("abc", "Dark Knight Rises", 2012,
+                List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20"));
+        movieInfo.setVersion(3L);
+
+        when(moviesInfoServiceMock.getMovieInfoById(movieInfoId)).thenReturn(Mono.just(movieInfo));
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifNoneMatch("\"3\"")
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .isEmpty();
+    }
+
     @Test
     void addMovieInfo() {
         var movieInfo = new MovieInfo(null, "Batman Begins1", 2005,
@@ -165,7 +299,7 @@ public class MoviesInfoControllerUnitTest {
         var movieInfo = new MovieInfo(null, "Batman Begins", 2022,
                 List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2022-06-15"));
 
-        when(moviesInfoServiceMock.updateMovieInfo(isA(String.class), isA(MovieInfo.class)))
+        when(moviesInfoServiceMock.updateMovieInfo(isA(String.class), isNull(), isA(MovieInfo.class)))
                 .thenReturn(Mono.just(
                         new MovieInfo(movieInfoId, "Batman Begins Updated", 2023,
                                 List.of("Christian Bale"), LocalDate.parse("2023-06-15"))
@@ -191,6 +325,122 @@ public class MoviesInfoControllerUnitTest {
 
     }
 
+    @Test
+    void updateMovieInfo_preconditionFailed() {
+        var movieInfoId = "abc";
+
+        var movieInfo = new MovieInfo(null, "Batman Begins", 2022,
+                List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2022-06-15"));
+
+        when(moviesInfoServiceMock.updateMovieInfo(movieInfoId, 2L, movieInfo)).thenReturn(Mono.empty());
+
+        webTestClient
+                .put()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .ifMatch("\"2\"")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void updateMovieInfo_weakIfMatch() {
+        var movieInfo = new MovieInfo(null, "Batman Begins", 2022,
+                List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2022-06-15"));
+
+        webTestClient
+                .put()
+                .uri(MOVIE_INFOS_URL + "/{id}", "abc")
+                .ifMatch("W/\"2\"")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        verifyNoInteractions(moviesInfoServiceMock);
+    }
+
+    @Test
+    void patchMovieInfo() {
+        var movieInfoId = "abc";
+
+        var movieInfoPatch = new MovieInfoPatch();
+        movieInfoPatch.setCastAdd(List.of("Gary Oldman"));
+
+        when(moviesInfoServiceMock.patchMovieInfo(movieInfoId, null, movieInfoPatch))
+                .thenReturn(Mono.just(
+                        new MovieInfo(movieInfoId, "Batman Begins", 2005,
+                                List.of("Christian Bale", "Michael Cane", "Gary Oldman"), LocalDate.parse("2005-06-15"))
+                ));
+
+        webTestClient
+                .patch()
+                .uri(MOVIE_INFOS_URL + "/{id}", movieInfoId)
+                .bodyValue(movieInfoPatch)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(MovieInfo.class)
+                .value(patchedMovieInfo -> assertEquals(3, patchedMovieInfo.getCast().size()));
+    }
+
+    @Test
+    void patchMovieInfo_validation() {
+        var movieInfoPatch = new MovieInfoPatch();
+        movieInfoPatch.setCast(List.of("Christian Bale"));
+        movieInfoPatch.setCastRemove(List.of("Michael Cane"));
+        movieInfoPatch.setYear(-2005);
+
+        webTestClient
+                .patch()
+                .uri(MOVIE_INFOS_URL + "/{id}", "abc")
+                .bodyValue(movieInfoPatch)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfo.cast cannot be combined with castAdd or castRemove,movieInfo.year must be a positive");
+    }
+
+    @Test
+    void batchGetMovieInfos() {
+        var movieInfo = new MovieInfo("abc", "Dark Knight Rises", 2012,
+                List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2012-07-20"));
+
+        when(moviesInfoServiceMock.getMovieInfosByIds(List.of("def", "abc")))
+                .thenReturn(Flux.just(BatchGetItem.of("def", null), BatchGetItem.of("abc", movieInfo)));
+
+        var items = webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL + "/batch-get")
+                .bodyValue(new BatchGetRequest(List.of("def", "abc")))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(BatchGetItem.class)
+                .getResponseBody();
+
+        StepVerifier.create(items)
+                .assertNext(item -> assertEquals(BatchGetItem.Status.MISSING, item.getStatus()))
+                .assertNext(item -> assertEquals("Dark Knight Rises", item.getMovieInfo().getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void batchGetMovieInfos_validation() {
+        webTestClient
+                .post()
+                .uri(MOVIE_INFOS_URL + "/batch-get")
+                .bodyValue(new BatchGetRequest(List.of()))
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("batchGet.movieInfoIds must be present");
+    }
+
     @Test
     void deleteMovieInfo() {
         var movieInfoId = "abc";
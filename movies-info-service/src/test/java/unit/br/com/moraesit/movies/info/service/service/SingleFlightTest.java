@@ -0,0 +1,73 @@
+package br.com.moraesit.movies.info.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void execute_coalescesConcurrentCalls() {
+        var loads = new AtomicInteger();
+        var result = Sinks.<String>one();
+
+        var first = singleFlight.execute("abc", key -> {
+            loads.incrementAndGet();
+            return result.asMono();
+        });
+        var second = singleFlight.execute("abc", key -> {
+            loads.incrementAndGet();
+            return Mono.just("unexpected");
+        });
+
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> result.tryEmitValue("movie"))
+                .assertNext(values -> {
+                    assertEquals("movie", values.getT1());
+                    assertEquals("movie", values.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("singleflight.calls").tag("result", "coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("singleflight.inflight").gauge().value());
+    }
+
+    @Test
+    void execute_cancelledCallerDoesNotCancelOthers() {
+        var result = Sinks.<String>one();
+
+        StepVerifier.create(singleFlight.execute("abc", key -> result.asMono()))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(singleFlight.execute("abc", key -> Mono.just("unexpected")))
+                .then(() -> result.tryEmitValue("movie"))
+                .expectNext("movie")
+                .verifyComplete();
+    }
+
+    @Test
+    void forget_startsFreshLoad() {
+        var result = Sinks.<String>one();
+
+        StepVerifier.create(singleFlight.execute("abc", key -> result.asMono()))
+                .then(() -> singleFlight.forget("abc"))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(singleFlight.execute("abc", key -> Mono.just("updated")))
+                .expectNext("updated")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.moraesit.movies.loadtest;
+
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bulk loads the synthetic catalog with unordered insertMany batches, several in flight at once.
+ * Documents are generated on the calling thread from a fixed seed, so two runs with the same
+ * settings load the same data.
+ */
+@Slf4j
+public class DatasetSeeder {
+
+    static final String MOVIE_INFO_COLLECTION = "movieInfo";
+
+    static final String REVIEW_COLLECTION = "review";
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final MongoDatabase database;
+
+    private final SyntheticCatalog catalog;
+
+    private final LoadTestConfig config;
+
+    public DatasetSeeder(MongoDatabase database, SyntheticCatalog catalog, LoadTestConfig config) {
+        this.database = database;
+        this.catalog = catalog;
+        this.config = config;
+    }
+
+    public SeedSummary seed() {
+        var startedAt = System.nanoTime();
+        var random = new SplittableRandom(config.randomSeed());
+        var movies = insert(MOVIE_INFO_COLLECTION, config.movies(), movieId -> catalog.movieInfo(movieId, random));
+        var reviews = insert(REVIEW_COLLECTION, config.reviews(), index -> catalog.review(random));
+        var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        log.info("seeded {} movie infos and {} reviews in {}s", movies, reviews, elapsed.toSeconds());
+        return new SeedSummary(movies, reviews, elapsed.toMillis() / 1000.0);
+    }
+
+    private long insert(String collectionName, int count, Function<Integer, Document> generator) {
+        MongoCollection<Document> collection = database.getCollection(collectionName);
+        var inserted = new AtomicLong();
+        var progressStep = Math.max(count / 20, 1);
+        return Flux.range(0, count)
+                .map(generator)
+                .buffer(config.seedBatchSize())
+                .flatMap(batch -> insertBatch(collection, batch), config.seedConcurrency())
+                .doOnNext(batchSize -> {
+                    var total = inserted.addAndGet(batchSize);
+                    if (total / progressStep != (total - batchSize) / progressStep)
+                        log.info("{}: {}/{} documents inserted", collectionName, total, count);
+                })
+                .reduce(0L, Long::sum)
+                .blockOptional()
+                .orElse(0L);
+    }
+
+    private static Mono<Integer> insertBatch(MongoCollection<Document> collection, List<Document> batch) {
+        return Mono.from(collection.insertMany(batch, UNORDERED))
+                .map(result -> result.getInsertedIds().size());
+    }
+
+    public record SeedSummary(long movies, long reviews, double durationSeconds) {
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.moraesit.movies.loadtest;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.reactivestreams.client.MongoClients;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * End to end load test: starts Mongo, boots both services from their jars, seeds a synthetic
+ * catalog with Zipf skewed review counts, then drives a warm-up and a measured open-model phase
+ * and writes the report. Exits with 1 when the error rate is above {@code --max-error-rate}.
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    private static final Duration SUMMARY_REBUILD_TIMEOUT = Duration.ofMinutes(30);
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromArgs(args);
+        var report = run(config);
+
+        var objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .indentOutput(true)
+                .build();
+        Files.createDirectories(config.reportFile().toAbsolutePath().getParent());
+        objectMapper.writeValue(config.reportFile().toFile(), report);
+
+        var total = report.total();
+        log.info("requests={} throughput={}/s errorRate={} p50={}ms p99={}ms p999={}ms",
+                total.requests(), Math.round(total.throughput()), total.errorRate(),
+                total.p50Millis(), total.p99Millis(), total.p999Millis());
+        log.info("report written to {}", config.reportFile().toAbsolutePath());
+        System.exit(total.errorRate() > config.maxErrorRate() ? 1 : 0);
+    }
+
+    static LoadTestReport run(LoadTestConfig config) throws Exception {
+        var startedAt = Instant.now();
+        var logDir = config.reportFile().toAbsolutePath().getParent();
+        var catalog = new SyntheticCatalog(new ZipfDistribution(config.movies(), config.zipfExponent()));
+
+        try (var mongo = MongoInstance.start(config);
+             var mongoClient = MongoClients.create(mongo.uri());
+             var infoService = ServiceProcess.start("info-service", config.infoServiceJar(), mongo.uri(),
+                     config.serviceJvmArgs(), config.infoServiceArgs(), logDir);
+             var reviewService = ServiceProcess.start("review-service", config.reviewServiceJar(), mongo.uri(),
+                     config.serviceJvmArgs(), config.reviewServiceArgs(), logDir)) {
+
+            // the services are up first, so their indexes exist before the data goes in
+            var seed = new DatasetSeeder(mongoClient.getDatabase("movies"), catalog, config).seed();
+
+            log.info("rebuilding review summaries");
+            WebClient.create(reviewService.baseUrl())
+                    .post()
+                    .uri("/actuator/reviewsummaries")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(SUMMARY_REBUILD_TIMEOUT);
+
+            var driver = new OpenModelDriver(infoService.baseUrl(), reviewService.baseUrl(), catalog, config);
+            driver.run("warm-up", config.warmup());
+            var measured = driver.run("measurement", config.duration());
+            return LoadTestReport.of(startedAt, config, seed, measured);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.moraesit.movies.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of one run, read from {@code --name=value} arguments. Everything has a default sized
+ * for a laptop; the catalog the request was written for is
+ * {@code --movies=1000000 --reviews=20000000}.
+ */
+public record LoadTestConfig(
+        String mongoUri,
+        String mongoVersion,
+        int movies,
+        int reviews,
+        double zipfExponent,
+        long randomSeed,
+        int seedBatchSize,
+        int seedConcurrency,
+        double requestsPerSecond,
+        Duration warmup,
+        Duration duration,
+        Duration requestTimeout,
+        int maxInFlight,
+        Map<Operation, Integer> mix,
+        double maxErrorRate,
+        List<String> serviceJvmArgs,
+        List<String> infoServiceArgs,
+        List<String> reviewServiceArgs,
+        Path infoServiceJar,
+        Path reviewServiceJar,
+        Path reportFile) {
+
+    static final String DEFAULT_MIX = "getMovieInfo:50,getReviewsPage:20,getReviewSummary:15,searchMovieInfos:5,addReview:10";
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("expected --name=value but got: " + arg);
+            var separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        var reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+        var config = new LoadTestConfig(
+                options.remove("mongo-uri"),
+                options.getOrDefault("mongo-version", "V4_4"),
+                Integer.parseInt(options.getOrDefault("movies", "100000")),
+                Integer.parseInt(options.getOrDefault("reviews", "2000000")),
+                Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0")),
+                Long.parseLong(options.getOrDefault("random-seed", "42")),
+                Integer.parseInt(options.getOrDefault("seed-batch-size", "1000")),
+                Integer.parseInt(options.getOrDefault("seed-concurrency", "8")),
+                Double.parseDouble(options.getOrDefault("rps", "500")),
+                Duration.parse(options.getOrDefault("warmup", "PT30S")),
+                Duration.parse(options.getOrDefault("duration", "PT2M")),
+                Duration.parse(options.getOrDefault("request-timeout", "PT10S")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Double.parseDouble(options.getOrDefault("max-error-rate", "0.01")),
+                split(options.getOrDefault("service-jvm-args", "-Xmx1g")),
+                split(options.getOrDefault("info-service-args", "")),
+                split(options.getOrDefault("review-service-args", "")),
+                Path.of(options.getOrDefault("info-service-jar", System.getProperty("loadtest.info-service-jar", ""))),
+                Path.of(options.getOrDefault("review-service-jar", System.getProperty("loadtest.review-service-jar", ""))),
+                Path.of(options.getOrDefault("report", reportDir.resolve("report.json").toString())));
+
+        options.keySet().removeAll(List.of("mongo-version", "movies", "reviews", "zipf-exponent", "random-seed",
+                "seed-batch-size", "seed-concurrency", "rps", "warmup", "duration", "request-timeout", "max-in-flight",
+                "mix", "max-error-rate", "service-jvm-args", "info-service-args", "review-service-args",
+                "info-service-jar", "review-service-jar", "report"));
+        if (!options.isEmpty())
+            throw new IllegalArgumentException("unknown options: " + options.keySet());
+        if (config.movies() < 1 || config.reviews() < 0 || config.requestsPerSecond() <= 0)
+            throw new IllegalArgumentException("movies must be positive, reviews non-negative and rps positive");
+        return config;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("expected operation:weight in --mix but got: " + entry);
+            weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+}
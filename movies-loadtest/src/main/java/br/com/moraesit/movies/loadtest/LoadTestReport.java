@@ -0,0 +1,71 @@
+package br.com.moraesit.movies.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine readable outcome of a run, written as JSON so two builds can be diffed.
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        LoadTestConfig config,
+        DatasetSeeder.SeedSummary seed,
+        double measuredSeconds,
+        double offeredRequestsPerSecond,
+        OperationStats total,
+        Map<String, OperationStats> operations) {
+
+    public static LoadTestReport of(Instant startedAt, LoadTestConfig config, DatasetSeeder.SeedSummary seed,
+                                    OpenModelDriver.PhaseResult measured) {
+        var operations = new LinkedHashMap<String, OperationStats>();
+        var merged = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+        long dropped = 0;
+        for (var entry : measured.recorders().entrySet()) {
+            var recorder = entry.getValue();
+            operations.put(entry.getKey().key(), OperationStats.of(recorder.latencyNanos(), recorder.requests(),
+                    recorder.errors(), recorder.dropped(), measured.durationSeconds()));
+            merged.add(recorder.latencyNanos());
+            requests += recorder.requests();
+            errors += recorder.errors();
+            dropped += recorder.dropped();
+        }
+        return new LoadTestReport(startedAt, config, seed, measured.durationSeconds(), config.requestsPerSecond(),
+                OperationStats.of(merged, requests, errors, dropped, measured.durationSeconds()), operations);
+    }
+
+    public record OperationStats(
+            long requests,
+            long errors,
+            long dropped,
+            double errorRate,
+            double throughput,
+            double meanMillis,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis) {
+
+        static OperationStats of(Histogram latencyNanos, long requests, long errors, long dropped, double seconds) {
+            return new OperationStats(
+                    requests,
+                    errors,
+                    dropped,
+                    requests > 0 ? (double) errors / requests : 0.0,
+                    seconds > 0 ? (requests - dropped) / seconds : 0.0,
+                    latencyNanos.getMean() / 1_000_000.0,
+                    millis(latencyNanos.getValueAtPercentile(50.0)),
+                    millis(latencyNanos.getValueAtPercentile(99.0)),
+                    millis(latencyNanos.getValueAtPercentile(99.9)),
+                    millis(latencyNanos.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
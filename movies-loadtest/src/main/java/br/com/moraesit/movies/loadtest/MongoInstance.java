@@ -0,0 +1,61 @@
+package br.com.moraesit.movies.loadtest;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfig;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * The Mongo the run talks to: a flapdoodle embedded mongod started for the run, or an external
+ * server when {@code --mongo-uri} is given.
+ */
+@Slf4j
+public class MongoInstance implements AutoCloseable {
+
+    private final String uri;
+
+    private final MongodExecutable executable;
+
+    private final MongodProcess process;
+
+    private MongoInstance(String uri, MongodExecutable executable, MongodProcess process) {
+        this.uri = uri;
+        this.executable = executable;
+        this.process = process;
+    }
+
+    public static MongoInstance start(LoadTestConfig config) throws IOException {
+        if (config.mongoUri() != null) {
+            log.info("using external mongo at {}", config.mongoUri());
+            return new MongoInstance(config.mongoUri(), null, null);
+        }
+
+        var port = Network.getFreeServerPort();
+        var mongodConfig = MongodConfig.builder()
+                .version(Version.Main.valueOf(config.mongoVersion()))
+                .net(new Net(port, Network.localhostIsIPv6()))
+                .build();
+        var executable = MongodStarter.getDefaultInstance().prepare(mongodConfig);
+        var process = executable.start();
+        log.info("embedded mongo {} started on port {}", config.mongoVersion(), port);
+        return new MongoInstance("mongodb://localhost:" + port, executable, process);
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (process != null)
+            process.stop();
+        if (executable != null)
+            executable.stop();
+    }
+}
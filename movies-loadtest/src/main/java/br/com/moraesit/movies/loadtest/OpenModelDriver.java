@@ -0,0 +1,130 @@
+package br.com.moraesit.movies.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Sends requests at a fixed arrival rate whatever the response times are (an open workload
+ * model), picking each request from the weighted traffic mix. Requests over the in-flight cap
+ * are dropped and reported rather than queued, so the offered rate never bends to the service.
+ */
+@Slf4j
+public class OpenModelDriver {
+
+    private static final Duration TICK = Duration.ofMillis(1);
+
+    private final WebClient infoClient;
+
+    private final WebClient reviewClient;
+
+    private final SyntheticCatalog catalog;
+
+    private final LoadTestConfig config;
+
+    private final Operation[] schedule;
+
+    private final SplittableRandom random;
+
+    public OpenModelDriver(String infoBaseUrl, String reviewBaseUrl, SyntheticCatalog catalog, LoadTestConfig config) {
+        var connectionProvider = ConnectionProvider.builder("loadtest")
+                .maxConnections(config.maxInFlight())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        var connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider));
+        this.infoClient = WebClient.builder().baseUrl(infoBaseUrl).clientConnector(connector).build();
+        this.reviewClient = WebClient.builder().baseUrl(reviewBaseUrl).clientConnector(connector).build();
+        this.catalog = catalog;
+        this.config = config;
+        this.random = new SplittableRandom(config.randomSeed() + 1);
+
+        var slots = new ArrayList<Operation>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++)
+                slots.add(operation);
+        });
+        if (slots.isEmpty())
+            throw new IllegalArgumentException("the traffic mix has no weight");
+        this.schedule = slots.toArray(Operation[]::new);
+    }
+
+    public PhaseResult run(String phase, Duration duration) {
+        var recorders = new EnumMap<Operation, OperationRecorder>(Operation.class);
+        config.mix().keySet().forEach(operation -> recorders.put(operation, new OperationRecorder()));
+        var inFlight = new AtomicInteger();
+        var issued = new AtomicLong();
+        var intervalNanos = 1_000_000_000.0 / config.requestsPerSecond();
+        var total = (long) (duration.toNanos() / intervalNanos);
+
+        log.info("{}: offering {} requests/s for {}s", phase, config.requestsPerSecond(), duration.toSeconds());
+        var start = System.nanoTime();
+        Flux.interval(TICK)
+                .onBackpressureDrop()
+                .map(tick -> Math.min(total, (long) ((System.nanoTime() - start) / intervalNanos)))
+                .takeUntil(due -> due >= total)
+                // requests that fell due since the last tick, each with its own scheduled send time
+                .concatMapIterable(due -> LongStream.range(issued.getAndSet(due), due).boxed().toList())
+                .flatMap(index -> send(start + (long) (index * intervalNanos), recorders, inFlight), Integer.MAX_VALUE)
+                .then()
+                .block();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new PhaseResult(recorders, elapsed.toMillis() / 1000.0);
+    }
+
+    private Mono<Void> send(long scheduledAt, Map<Operation, OperationRecorder> recorders, AtomicInteger inFlight) {
+        var operation = schedule[random.nextInt(schedule.length)];
+        var recorder = recorders.get(operation);
+        if (inFlight.incrementAndGet() > config.maxInFlight()) {
+            inFlight.decrementAndGet();
+            recorder.drop();
+            return Mono.empty();
+        }
+        return request(operation)
+                .timeout(config.requestTimeout())
+                .map(status -> status < 400)
+                .onErrorResume(ex -> Mono.just(false))
+                .doOnNext(success -> recorder.record(System.nanoTime() - scheduledAt, success))
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .then();
+    }
+
+    private Mono<Integer> request(Operation operation) {
+        // every random draw happens here, on the single thread that schedules requests
+        return switch (operation) {
+            case GET_MOVIE_INFO -> exchange(infoClient.get()
+                    .uri("/v1/movieinfos/{id}", catalog.popularMovieId(random)));
+            case GET_REVIEWS_PAGE -> exchange(reviewClient.get()
+                    .uri("/v1/reviews?movieInfoId={id}&limit=20", catalog.popularMovieId(random)));
+            case GET_REVIEW_SUMMARY -> exchange(reviewClient.get()
+                    .uri("/v1/reviews/summary/{id}", catalog.popularMovieId(random)));
+            case SEARCH_MOVIE_INFOS -> exchange(infoClient.get()
+                    .uri("/v1/movieinfos/search?q={q}&limit=20", catalog.searchTerm(random)));
+            case ADD_REVIEW -> exchange(reviewClient.post()
+                    .uri("/v1/reviews")
+                    .bodyValue(Map.of("movieInfoId", (long) catalog.popularMovieId(random),
+                            "comment", catalog.comment(random),
+                            "rating", catalog.rating(random))));
+        };
+    }
+
+    private static Mono<Integer> exchange(WebClient.RequestHeadersSpec<?> request) {
+        // the body is drained, so latency includes the whole response
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+
+    public record PhaseResult(Map<Operation, OperationRecorder> recorders, double durationSeconds) {
+    }
+}
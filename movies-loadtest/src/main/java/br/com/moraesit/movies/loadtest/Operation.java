@@ -0,0 +1,33 @@
+package br.com.moraesit.movies.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Requests the traffic mix is made of, named as they appear in {@code --mix} and in the report.
+ */
+public enum Operation {
+
+    GET_MOVIE_INFO("getMovieInfo"),
+    GET_REVIEWS_PAGE("getReviewsPage"),
+    GET_REVIEW_SUMMARY("getReviewSummary"),
+    SEARCH_MOVIE_INFOS("searchMovieInfos"),
+    ADD_REVIEW("addReview");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown operation: " + key
+                        + ", expected one of " + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
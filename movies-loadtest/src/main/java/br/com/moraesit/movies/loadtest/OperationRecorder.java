@@ -0,0 +1,54 @@
+package br.com.moraesit.movies.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts of one operation during one phase. Latency is measured from the
+ * moment the request was scheduled to be sent, not from when it was actually sent, so a stalled
+ * service shows up in the percentiles instead of silently lowering the send rate.
+ */
+public class OperationRecorder {
+
+    private final Histogram latencyNanos = new ConcurrentHistogram(3);
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public void record(long latency, boolean success) {
+        requests.increment();
+        if (!success)
+            errors.increment();
+        latencyNanos.recordValue(Math.max(latency, 0));
+    }
+
+    /**
+     * The request was never sent because too many were already in flight; counted as an error.
+     */
+    public void drop() {
+        requests.increment();
+        errors.increment();
+        dropped.increment();
+    }
+
+    public Histogram latencyNanos() {
+        return latencyNanos;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
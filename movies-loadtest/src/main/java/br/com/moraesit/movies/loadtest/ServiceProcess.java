@@ -0,0 +1,114 @@
+package br.com.moraesit.movies.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service booted from its executable jar in a child JVM. Each service keeps its own
+ * classpath, heap and GC, and its output goes to a log file next to the report.
+ */
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String name;
+
+    private final Process process;
+
+    private final int port;
+
+    private ServiceProcess(String name, Process process, int port) {
+        this.name = name;
+        this.process = process;
+        this.port = port;
+    }
+
+    public static ServiceProcess start(String name, Path jar, String mongoUri, List<String> jvmArgs,
+                                       List<String> serviceArgs, Path logDir) throws IOException {
+        if (!Files.isRegularFile(jar))
+            throw new IllegalStateException(name + " jar not found at " + jar.toAbsolutePath()
+                    + "; run through the loadTest gradle task or pass --" + name + "-jar");
+
+        var port = freePort();
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        // no profile section matches, so only the uri below configures Mongo
+        command.add("--spring.profiles.active=loadtest");
+        command.add("--spring.data.mongodb.uri=" + mongoUri + "/movies");
+        command.addAll(serviceArgs);
+
+        Files.createDirectories(logDir);
+        var logFile = logDir.resolve(name + ".log");
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        log.info("{} starting on port {}, logging to {}", name, port, logFile);
+
+        var service = new ServiceProcess(name, process, port);
+        service.awaitReady();
+        return service;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    private void awaitReady() {
+        var webClient = WebClient.create(baseUrl());
+        var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive())
+                throw new IllegalStateException(name + " exited during startup with code " + process.exitValue());
+            var up = webClient.get()
+                    .uri("/actuator/health")
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                    .timeout(Duration.ofSeconds(2))
+                    .onErrorResume(ex -> Mono.just(false))
+                    .block();
+            if (Boolean.TRUE.equals(up)) {
+                log.info("{} is up at {}", name, baseUrl());
+                return;
+            }
+            sleep(Duration.ofMillis(500));
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS))
+            process.destroyForcibly();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the service to start", ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.moraesit.movies.loadtest;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates movie info and review documents in the exact shape Spring Data writes them, so the
+ * services read seeded data through their normal mapping. Movie ids are the decimal strings
+ * "0".."movies-1", which lets a review's numeric movieInfoId point at its movie.
+ */
+public class SyntheticCatalog {
+
+    static final List<String> TITLE_WORDS = List.of(
+            "Dark", "Knight", "Rises", "Return", "Night", "City", "Lost", "Star", "War", "Dream", "Shadow", "Empire",
+            "Last", "First", "Silent", "River", "Fire", "Ice", "Storm", "Kingdom", "Ghost", "Blade", "Runner", "Iron",
+            "Golden", "Wild", "Heart", "Secret", "Garden", "Ocean", "Mountain", "Road", "Journey", "Legend", "Story",
+            "Game", "Time", "Machine", "Future", "Past", "Love", "Song", "Island", "Winter", "Summer", "Red", "Blue",
+            "Black", "White", "Stone", "Crown", "Hunter", "Dragon", "Space", "Planet", "Moon", "Sun", "Edge", "Signal");
+
+    static final List<String> FIRST_NAMES = List.of(
+            "Christian", "Michael", "Heath", "Gary", "Anne", "Tom", "Marion", "Joseph", "Ellen", "Cillian", "Emma",
+            "Scarlett", "Morgan", "Natalie", "Leonardo", "Kate", "Brad", "Cate", "Denzel", "Viola", "Keanu", "Carrie",
+            "Hugh", "Rachel", "Samuel", "Uma", "Ryan", "Margot", "Idris", "Tilda", "Oscar", "Lupita", "Javier", "Penelope");
+
+    static final List<String> LAST_NAMES = List.of(
+            "Bale", "Caine", "Ledger", "Oldman", "Hathaway", "Hardy", "Cotillard", "Gordon", "Page", "Murphy", "Stone",
+            "Johansson", "Freeman", "Portman", "DiCaprio", "Winslet", "Pitt", "Blanchett", "Washington", "Davis",
+            "Reeves", "Moss", "Jackman", "Weisz", "Jackson", "Thurman", "Gosling", "Robbie", "Elba", "Swinton",
+            "Isaac", "Nyongo", "Bardem", "Cruz", "Pattinson", "Zendaya", "Chalamet", "Pugh", "Mescal", "Coleman");
+
+    static final List<String> COMMENT_WORDS = List.of(
+            "great", "boring", "stunning", "slow", "brilliant", "weak", "plot", "acting", "score", "ending", "twist",
+            "visuals", "cast", "script", "pacing", "must", "watch", "again", "overrated", "classic", "masterpiece");
+
+    private static final String MOVIE_INFO_CLASS = "br.com.moraesit.movies.info.service.domain.MovieInfo";
+
+    private static final String REVIEW_CLASS = "br.com.moraesit.movies.review.service.domain.Review";
+
+    private final ZipfDistribution moviePopularity;
+
+    public SyntheticCatalog(ZipfDistribution moviePopularity) {
+        this.moviePopularity = moviePopularity;
+    }
+
+    public Document movieInfo(int movieId, SplittableRandom random) {
+        var wordCount = 2 + random.nextInt(2);
+        var name = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0)
+                name.append(' ');
+            name.append(pick(TITLE_WORDS, random));
+        }
+        var castSize = 3 + random.nextInt(13);
+        var cast = new ArrayList<String>(castSize);
+        for (int i = 0; i < castSize; i++)
+            cast.add(pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random));
+        var year = 1950 + random.nextInt(75);
+        var releaseDate = LocalDate.of(year, 1 + random.nextInt(12), 1 + random.nextInt(28));
+
+        return new Document("_id", String.valueOf(movieId))
+                .append("name", name.toString())
+                .append("year", year)
+                .append("cast", cast)
+                // Spring Data stores a LocalDate as the start of that day in the default time zone
+                .append("releaseDate", Date.from(releaseDate.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .append("_class", MOVIE_INFO_CLASS);
+    }
+
+    public Document review(SplittableRandom random) {
+        return new Document("_id", new ObjectId())
+                .append("movieInfoId", (long) popularMovieId(random))
+                .append("comment", comment(random))
+                .append("rating", rating(random))
+                .append("version", 0L)
+                .append("_class", REVIEW_CLASS);
+    }
+
+    public int popularMovieId(SplittableRandom random) {
+        return moviePopularity.sample(random);
+    }
+
+    public String searchTerm(SplittableRandom random) {
+        return random.nextInt(4) == 0 ? pick(LAST_NAMES, random) : pick(TITLE_WORDS, random);
+    }
+
+    public String comment(SplittableRandom random) {
+        var wordCount = 3 + random.nextInt(30);
+        var comment = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0)
+                comment.append(' ');
+            comment.append(pick(COMMENT_WORDS, random));
+        }
+        return comment.toString();
+    }
+
+    public double rating(SplittableRandom random) {
+        // skewed towards the upper half, one decimal place like the sample data
+        return Math.round(Math.min(10.0, Math.max(0.0, 7.0 + random.nextGaussian() * 2.0)) * 10) / 10.0;
+    }
+
+    private static String pick(List<String> words, SplittableRandom random) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
@@ -2,11 +2,17 @@ package br.com.moraesit.movies.review.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MoviesReviewServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(MoviesReviewServiceApplication.class, args);
+        var application = new SpringApplication(MoviesReviewServiceApplication.class);
+        // keeps the startup steps for the actuator startup endpoint
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
     }
 }
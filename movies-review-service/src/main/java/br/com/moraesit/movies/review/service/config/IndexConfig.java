@@ -0,0 +1,23 @@
+package br.com.moraesit.movies.review.service.config;
+
+import br.com.moraesit.movies.common.index.IndexProperties;
+import br.com.moraesit.movies.common.index.IndexedTypes;
+import br.com.moraesit.movies.review.service.domain.Review;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IndexConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "reviews.indexes")
+    public IndexProperties indexProperties() {
+        return new IndexProperties();
+    }
+
+    @Bean
+    public IndexedTypes indexedTypes() {
+        return IndexedTypes.of(Review.class);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.moraesit.movies.review.service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Fills {@code @LastModifiedDate} on every save and insert. Kept off the application class so
+ * the web slice tests do not load it.
+ */
+@Configuration
+@EnableReactiveMongoAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+public class MongoAuditingConfig {
+
+    /**
+     * Mongo stores dates in milliseconds, so the saved review answered to the client is truncated
+     * the same way and matches what a later read returns.
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+}
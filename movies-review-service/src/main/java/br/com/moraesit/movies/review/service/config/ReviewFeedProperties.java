@@ -0,0 +1,44 @@
+package br.com.moraesit.movies.review.service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.BufferOverflowStrategy;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "reviews.feed")
+public class ReviewFeedProperties {
+
+    /**
+     * Size of the capped review events collection; only used when the collection is created.
+     */
+    private DataSize collectionSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Events kept in the capped collection; only used when the collection is created.
+     */
+    private long maxEvents = 100_000;
+
+    /**
+     * Events buffered for each subscriber that reads slower than reviews are written.
+     */
+    private int subscriberBufferSize = 256;
+
+    /**
+     * What happens once a subscriber's buffer is full: ERROR disconnects it, DROP_LATEST and
+     * DROP_OLDEST keep it connected and lose events.
+     */
+    private BufferOverflowStrategy overflowStrategy = BufferOverflowStrategy.ERROR;
+
+    /**
+     * Pause before the tailable cursor is reopened after it died or failed.
+     */
+    private Duration reconnectDelay = Duration.ofMillis(200);
+
+    /**
+     * Interval of the comment sent to idle SSE subscribers so proxies keep the connection open.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
@@ -0,0 +1,28 @@
+package br.com.moraesit.movies.review.service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "reviews.write-batching")
+public class WriteBatchingProperties {
+
+    /**
+     * Coalesce concurrent addReview calls into insertMany batches instead of one save each.
+     */
+    private boolean enabled = false;
+
+    private int maxBatchSize = 100;
+
+    /**
+     * How long the first review of a batch may wait for others to join it.
+     */
+    private Duration maxLinger = Duration.ofMillis(5);
+
+    /**
+     * Reviews allowed to wait for a batch; beyond it addReview fails fast.
+     */
+    private int queueCapacity = 10_000;
+}
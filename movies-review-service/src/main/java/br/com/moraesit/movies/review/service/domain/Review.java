@@ -1,20 +1,34 @@
 package br.com.moraesit.movies.review.service.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@CompoundIndex(name = "movieInfoId_id", def = "{'movieInfoId': 1, '_id': 1}")
 public class Review {
 
+    /**
+     * What {@code ?fields=} may select; fields left out of a projection are null and not written.
+     */
+    public static final Set<String> FIELDS = Set.of("reviewId", "movieInfoId", "comment", "rating", "version",
+            "lastModified");
+
     @Id
     private String reviewId;
     @NotNull(message = "rating.movieInfoId: must not be null")
@@ -22,4 +36,16 @@ public class Review {
     private String comment;
     @Min(value = 0L, message = "rating.negative: please pass a non-negative value")
     private Double rating;
+    @Version
+    private Long version;
+    @LastModifiedDate
+    private Instant lastModified;
+
+    public Review(String reviewId, Long movieInfoId, String comment, Double rating) {
+        this(reviewId, movieInfoId, comment, rating, null);
+    }
+
+    public Review(String reviewId, Long movieInfoId, String comment, Double rating, Long version) {
+        this(reviewId, movieInfoId, comment, rating, version, null);
+    }
 }
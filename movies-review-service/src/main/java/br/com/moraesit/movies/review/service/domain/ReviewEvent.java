@@ -0,0 +1,35 @@
+package br.com.moraesit.movies.review.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One review write, appended to a capped collection that live feeds tail. The id is an ObjectId
+ * so events sort by the second they were written in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("reviewEvents")
+public class ReviewEvent {
+
+    public enum Type {
+        ADDED, UPDATED, DELETED
+    }
+
+    @Id
+    private String eventId;
+    private Type type;
+    private Long movieInfoId;
+    private Review review;
+    private Instant occurredAt;
+
+    public static ReviewEvent of(Type type, Review review) {
+        return new ReviewEvent(null, type, review.getMovieInfoId(), review, Instant.now());
+    }
+}
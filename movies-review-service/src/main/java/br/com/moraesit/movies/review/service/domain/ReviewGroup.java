@@ -0,0 +1,18 @@
+package br.com.moraesit.movies.review.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The reviews of one movie within a batched lookup; a movie without reviews gets an empty list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewGroup {
+    private Long movieInfoId;
+    private List<Review> reviews;
+}
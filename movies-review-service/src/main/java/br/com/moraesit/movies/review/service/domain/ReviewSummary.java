@@ -0,0 +1,54 @@
+package br.com.moraesit.movies.review.service.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running rating totals of one movie, keyed by movieInfoId and kept up to date with $inc as
+ * reviews are written. The histogram counts ratings per whole point, clamped to 0..10.
+ */
+@Data
+@NoArgsConstructor
+@Document("reviewSummary")
+public class ReviewSummary {
+
+    public static final int MAX_BUCKET = 10;
+
+    @Id
+    private Long movieInfoId;
+    private long count;
+    private double sum;
+    private Double min;
+    private Double max;
+    private Map<String, Long> histogram = new HashMap<>();
+    private Instant updatedAt;
+    /**
+     * Rebuild that last recomputed this summary, null until the first one.
+     */
+    private String rebuildId;
+    /**
+     * Set on every summary when a rebuild starts and cleared by rebuilding or updating it; the
+     * summaries still carrying the rebuild's id when it ends are stale and removed.
+     */
+    @JsonIgnore
+    private String pendingRebuildId;
+
+    public ReviewSummary(Long movieInfoId) {
+        this.movieInfoId = movieInfoId;
+    }
+
+    public Double getAverage() {
+        return count > 0 ? sum / count : null;
+    }
+
+    public static String bucket(double rating) {
+        return String.valueOf((int) Math.max(0, Math.min(MAX_BUCKET, Math.floor(rating))));
+    }
+}
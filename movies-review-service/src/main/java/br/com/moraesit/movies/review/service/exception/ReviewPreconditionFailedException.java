@@ -0,0 +1,17 @@
+package br.com.moraesit.movies.review.service.exception;
+
+public class ReviewPreconditionFailedException extends RuntimeException {
+    private String message;
+    private Throwable ex;
+
+    public ReviewPreconditionFailedException(String message, Throwable ex) {
+        super(message, ex);
+        this.message = message;
+        this.ex = ex;
+    }
+
+    public ReviewPreconditionFailedException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.moraesit.movies.review.service.exception;
+
+public class ReviewWriteRejectedException extends RuntimeException {
+    private String message;
+
+    public ReviewWriteRejectedException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.moraesit.movies.review.service.exceptionhandler;
+
+import br.com.moraesit.movies.common.pagination.InvalidCursorException;
+import br.com.moraesit.movies.common.web.InvalidFieldsException;
+import br.com.moraesit.movies.review.service.exception.ReviewConflictException;
+import br.com.moraesit.movies.review.service.exception.ReviewDataException;
+import br.com.moraesit.movies.review.service.exception.ReviewNotFoundException;
+import br.com.moraesit.movies.review.service.exception.ReviewPreconditionFailedException;
+import br.com.moraesit.movies.review.service.exception.ReviewWriteRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Component
+@Order(-2)
+public class GlobalErrorHandler implements ErrorWebExceptionHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        final HttpStatus status;
+        if (ex instanceof ReviewDataException || ex instanceof InvalidFieldsException || ex instanceof InvalidCursorException)
+            status = HttpStatus.BAD_REQUEST;
+        else if (ex instanceof ReviewNotFoundException)
+            status = HttpStatus.NOT_FOUND;
+        else if (ex instanceof ReviewConflictException || ex instanceof DuplicateKeyException
+                || ex instanceof OptimisticLockingFailureException)
+            status = HttpStatus.CONFLICT;
+        else if (ex instanceof ReviewPreconditionFailedException)
+            status = HttpStatus.PRECONDITION_FAILED;
+        else if (ex instanceof ReviewWriteRejectedException)
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        else
+            return Mono.error(ex);
+
+        log.error("exception caught in GlobalErrorHandler: {}", ex.getMessage());
+
+        // the driver's messages name the index and echo the document, neither meant for the client
+        var message = ex instanceof DuplicateKeyException ? "review.reviewId: already exists"
+                : ex instanceof OptimisticLockingFailureException ? "review.version: does not match the stored review"
+                : ex.getMessage();
+        var response = exchange.getResponse();
+        if (status == HttpStatus.SERVICE_UNAVAILABLE)
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        var errorMessage = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
+        response.setStatusCode(status);
+        return response.writeWith(Mono.just(errorMessage));
+    }
+}
@@ -1,10 +1,30 @@
 package br.com.moraesit.movies.review.service.handler;
 
+import br.com.moraesit.movies.common.codec.MediaTypes;
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.pagination.KeysetPage;
+import br.com.moraesit.movies.common.streaming.StreamingProperties;
+import br.com.moraesit.movies.common.web.ETags;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.common.web.IfMatch;
+import br.com.moraesit.movies.review.service.config.ReviewFeedProperties;
 import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewEvent;
+import br.com.moraesit.movies.review.service.domain.ReviewGroup;
+import br.com.moraesit.movies.review.service.domain.ReviewSummary;
+import br.com.moraesit.movies.review.service.exception.ReviewConflictException;
 import br.com.moraesit.movies.review.service.exception.ReviewDataException;
+import br.com.moraesit.movies.review.service.exception.ReviewNotFoundException;
+import br.com.moraesit.movies.review.service.exception.ReviewPreconditionFailedException;
 import br.com.moraesit.movies.review.service.repository.ReviewReactiveRepository;
+import br.com.moraesit.movies.review.service.service.ReviewFeedService;
+import br.com.moraesit.movies.review.service.service.ReviewSummaryService;
+import br.com.moraesit.movies.review.service.service.ReviewWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
@@ -13,29 +33,67 @@ import reactor.core.publisher.Mono;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class ReviewHandler {
 
+    static final int MAX_BATCH_MOVIE_INFO_IDS = 500;
+
+    private static final String REVIEWS = "reviews";
+
+    private static final String REVIEWS_BY_MOVIE = "reviews-by-movie";
+
+    private static final String REVIEWS_BY_MOVIES = "reviews-by-movies";
+
     private final Validator validator;
 
     private final ReviewReactiveRepository reviewReactiveRepository;
 
-    public ReviewHandler(Validator validator, ReviewReactiveRepository reviewReactiveRepository) {
+    private final ReviewWriter reviewWriter;
+
+    private final StreamingProperties streamingProperties;
+
+    private final ReviewSummaryService reviewSummaryService;
+
+    private final ReviewFeedService reviewFeedService;
+
+    private final ReviewFeedProperties reviewFeedProperties;
+
+    public ReviewHandler(Validator validator, ReviewReactiveRepository reviewReactiveRepository,
+                         ReviewWriter reviewWriter, StreamingProperties streamingProperties,
+                         ReviewSummaryService reviewSummaryService, ReviewFeedService reviewFeedService,
+                         ReviewFeedProperties reviewFeedProperties) {
         this.validator = validator;
         this.reviewReactiveRepository = reviewReactiveRepository;
+        this.reviewWriter = reviewWriter;
+        this.streamingProperties = streamingProperties;
+        this.reviewSummaryService = reviewSummaryService;
+        this.reviewFeedService = reviewFeedService;
+        this.reviewFeedProperties = reviewFeedProperties;
     }
 
     public Mono<ServerResponse> addReview(ServerRequest request) {
         return request.bodyToMono(Review.class)
                 .doOnNext(this::validate)
-                .flatMap(reviewReactiveRepository::save)
+                // a POST always inserts; a version in the body would turn the save into a versioned update
+                .doOnNext(review -> review.setVersion(null))
+                .flatMap(reviewWriter::save)
+                .flatMap(savedReview -> reviewSummaryService.reviewAdded(savedReview)
+                        .then(reviewFeedService.reviewAdded(savedReview))
+                        .thenReturn(savedReview))
                 .flatMap(ServerResponse.status(HttpStatus.CREATED)::bodyValue);
     }
 
-    private void validate(Review review) {
+    public void validate(Review review) {
         var constraintViolations = validator.validate(review);
         log.info("constraintViolations: {}", constraintViolations);
         if (constraintViolations.size() > 0) {
@@ -50,43 +108,282 @@ public class ReviewHandler {
 
     public Mono<ServerResponse> getReviews(ServerRequest request) {
         var movieInfoId = request.queryParam("movieInfoId");
+        var limit = request.queryParam("limit");
+        var fields = fieldSelection(request);
+        if (limit.isPresent()) {
+            return getReviewsPage(request, movieInfoId.map(Long::valueOf).orElse(null),
+                    request.queryParam("after").orElse(null), limit.get(), fields);
+        }
         final Flux<Review> reviews;
         if (movieInfoId.isPresent()) {
-            reviews = reviewReactiveRepository.findReviewsByMovieInfoId(Long.valueOf(movieInfoId.get()));
+            reviews = reviewReactiveRepository.streamAll(Long.valueOf(movieInfoId.get()),
+                    streamingProperties.batchSizeFor(REVIEWS_BY_MOVIE), fields);
         } else {
-            reviews = reviewReactiveRepository.findAll();
+            reviews = reviewReactiveRepository.streamAll(null,
+                    streamingProperties.batchSizeFor(REVIEWS), fields);
+        }
+        return buildReviewsResponse(request, reviews);
+    }
+
+    /**
+     * Reviews of several movies, streamed as one group per requested movie in ascending
+     * movieInfoId order. Movies without reviews still get an (empty) group. With
+     * {@code perMovieLimit} each movie is a limited query that reads only its oldest reviews, so
+     * the work stays small however many reviews a movie has; without it the reviews are streamed
+     * from a single {@code $in} cursor and grouped here. The movieInfoId is always read for the
+     * grouping and dropped again when it was not selected.
+     */
+    public Mono<ServerResponse> getReviewsByMovies(ServerRequest request) {
+        var movieInfoIds = parseMovieInfoIds(request.queryParams().get("movieInfoIds"));
+        var perMovieLimit = request.queryParam("perMovieLimit")
+                .map(ReviewHandler::parsePerMovieLimit);
+        var batchSize = streamingProperties.batchSizeFor(REVIEWS_BY_MOVIES);
+        var fields = fieldSelection(request);
+        var readFields = fields.including("movieInfoId");
+
+        var groups = Flux.defer(() -> {
+            var pending = new ArrayDeque<>(movieInfoIds);
+            var found = perMovieLimit.isPresent()
+                    ? reviewReactiveRepository.findFirstPerMovie(movieInfoIds, perMovieLimit.get(), readFields)
+                    : reviewReactiveRepository.streamByMovieInfoIds(movieInfoIds, batchSize, readFields)
+                            .bufferUntilChanged(Review::getMovieInfoId)
+                            .map(reviews -> new ReviewGroup(reviews.get(0).getMovieInfoId(), reviews));
+            return found
+                    .concatMapIterable(group -> {
+                        var emitted = new ArrayList<ReviewGroup>();
+                        while (!pending.isEmpty() && pending.peekFirst() < group.getMovieInfoId())
+                            emitted.add(new ReviewGroup(pending.pollFirst(), List.of()));
+                        pending.remove(group.getMovieInfoId());
+                        if (!fields.includes("movieInfoId"))
+                            group.getReviews().forEach(review -> review.setMovieInfoId(null));
+                        emitted.add(group);
+                        return emitted;
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(pending)
+                            .map(movieInfoId -> new ReviewGroup(movieInfoId, List.of()))));
+        });
+        return ServerResponse.ok().contentType(responseType(request)).body(groups, ReviewGroup.class);
+    }
+
+    private static FieldSelection fieldSelection(ServerRequest request) {
+        return FieldSelection.parse(request.queryParam("fields").orElse(null), Review.FIELDS);
+    }
+
+    private static SortedSet<Long> parseMovieInfoIds(List<String> values) {
+        var movieInfoIds = new TreeSet<Long>();
+        for (var value : values) {
+            for (var movieInfoId : value.split(",")) {
+                if (movieInfoId.isBlank())
+                    continue;
+                try {
+                    movieInfoIds.add(Long.valueOf(movieInfoId.trim()));
+                } catch (NumberFormatException ex) {
+                    throw new ReviewDataException("review.movieInfoIds: must be numbers");
+                }
+            }
         }
-        return buildReviewsResponse(reviews);
+        if (movieInfoIds.isEmpty())
+            throw new ReviewDataException("review.movieInfoIds: must not be empty");
+        if (movieInfoIds.size() > MAX_BATCH_MOVIE_INFO_IDS)
+            throw new ReviewDataException("review.movieInfoIds: must not have more than " + MAX_BATCH_MOVIE_INFO_IDS + " ids");
+        return movieInfoIds;
+    }
+
+    private static int parseLimit(String limit) {
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException ex) {
+            throw new ReviewDataException("cursor.limit: must be a number");
+        }
+    }
+
+    private static int parsePerMovieLimit(String perMovieLimit) {
+        try {
+            var limit = Integer.parseInt(perMovieLimit);
+            if (limit > 0)
+                return limit;
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        throw new ReviewDataException("review.perMovieLimit: must be a positive number");
+    }
+
+    /**
+     * The weak ETag covers the ids and versions on the page, the next cursor and the selected
+     * fields, so an unchanged page is answered with 304 before its body is encoded. The version is
+     * always read for it and dropped again when it was not selected.
+     */
+    private Mono<ServerResponse> getReviewsPage(ServerRequest request, Long movieInfoId, String after, String limit,
+                                                FieldSelection fields) {
+        var afterId = after != null ? KeysetCursor.decode(after) : null;
+        var pageSize = KeysetCursor.pageSize(parseLimit(limit));
+        return reviewReactiveRepository.findPage(movieInfoId, afterId, pageSize + 1, fields.including("version"))
+                .collectList()
+                .map(reviews -> KeysetPage.of(reviews, pageSize, Review::getReviewId))
+                .flatMap(page -> {
+                    var etag = pageETag(page, fields);
+                    if (!fields.includes("version"))
+                        page.getItems().forEach(review -> review.setVersion(null));
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> {
+                                var response = ServerResponse.ok()
+                                        .contentType(valueResponseType(request))
+                                        .eTag(etag);
+                                if (page.getNextCursor() != null)
+                                    response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+                                return response.bodyValue(page.getItems());
+                            }));
+                });
     }
 
-    private Mono<ServerResponse> buildReviewsResponse(Flux<Review> reviews) {
-        return ServerResponse.ok().body(reviews, Review.class);
+    private static String pageETag(KeysetPage<Review> page, FieldSelection fields) {
+        var fingerprint = new StringBuilder();
+        for (var review : page.getItems())
+            fingerprint.append(review.getReviewId()).append(':').append(review.getVersion()).append(',');
+        return ETags.weak(fingerprint.append(page.getNextCursor()).append(';').append(fields.fields()));
     }
 
+    private Mono<ServerResponse> buildReviewsResponse(ServerRequest request, Flux<Review> reviews) {
+        return ServerResponse.ok().contentType(responseType(request)).body(reviews, Review.class);
+    }
+
+    private static MediaType responseType(ServerRequest request) {
+        return MediaTypes.negotiate(request.headers().accept(), MediaTypes.STREAM_TYPES);
+    }
+
+    private static MediaType valueResponseType(ServerRequest request) {
+        return MediaTypes.negotiate(request.headers().accept(), MediaTypes.VALUE_TYPES);
+    }
+
+    /**
+     * An If-Match header takes precedence over the version in the body; it goes into the update's
+     * own query and a mismatch is a 412, where a stale body version stays a 409.
+     */
     public Mono<ServerResponse> updateReview(ServerRequest request) {
         var reviewId = request.pathVariable("id");
+        var ifMatch = IfMatch.from(request.headers().asHttpHeaders());
+        if (ifMatch.isUnsatisfiable())
+            return Mono.error(preconditionFailed(reviewId));
 
-        Mono<Review> existingReview = reviewReactiveRepository.findById(reviewId);
-
-        return existingReview
-                .flatMap(review -> request.bodyToMono(Review.class)
-                        .map(req -> {
-                            review.setComment(req.getComment());
-                            review.setRating(req.getRating());
-                            return review;
-                        })
-                        .flatMap(reviewReactiveRepository::save)
-                        .flatMap(savedReview -> ServerResponse.ok().bodyValue(savedReview))
-                );
+        return request.bodyToMono(Review.class)
+                .flatMap(req -> {
+                    var expectedVersion = ifMatch.present() ? ifMatch.version() : req.getVersion();
+                    // Mongo keeps milliseconds; anything finer would make this response differ from the next read
+                    var lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+                    return reviewReactiveRepository
+                            .updateAndGetPrevious(reviewId, expectedVersion, req.getComment(), req.getRating(), lastModified)
+                            .switchIfEmpty(ifMatch.present()
+                                    ? Mono.error(preconditionFailed(reviewId))
+                                    : missingOrConflict(reviewId, expectedVersion))
+                            .flatMap(previous -> {
+                                var version = previous.getVersion() != null ? previous.getVersion() + 1 : 1L;
+                                var updatedReview = new Review(previous.getReviewId(), previous.getMovieInfoId(),
+                                        req.getComment(), req.getRating(), version, lastModified);
+                                return reviewSummaryService.reviewUpdated(previous, updatedReview)
+                                        .then(reviewFeedService.reviewUpdated(updatedReview))
+                                        .thenReturn(updatedReview);
+                            });
+                })
+                .flatMap(updatedReview -> ServerResponse.ok()
+                        .eTag(ETags.strong(updatedReview.getVersion()))
+                        .lastModified(updatedReview.getLastModified())
+                        .bodyValue(updatedReview));
     }
 
     public Mono<ServerResponse> deleteReview(ServerRequest request) {
         var reviewId = request.pathVariable("id");
+        var ifMatch = IfMatch.from(request.headers().asHttpHeaders());
+        if (ifMatch.isUnsatisfiable())
+            return Mono.error(preconditionFailed(reviewId));
+        var version = ifMatch.present()
+                ? ifMatch.version()
+                : request.queryParam("version").map(ReviewHandler::parseVersion).orElse(null);
 
-        Mono<Review> existingReview = reviewReactiveRepository.findById(reviewId);
-
-        return existingReview
-                .flatMap(review -> reviewReactiveRepository.deleteById(review.getReviewId()))
+        // an unconditional delete of a missing review stays a no-op, as before
+        final Mono<Review> noMatch;
+        if (ifMatch.present())
+            noMatch = Mono.error(preconditionFailed(reviewId));
+        else
+            noMatch = version != null ? missingOrConflict(reviewId, version) : Mono.empty();
+        return reviewReactiveRepository.deleteAndGet(reviewId, version)
+                .switchIfEmpty(noMatch)
+                .flatMap(deletedReview -> reviewSummaryService.reviewRemoved(deletedReview)
+                        .then(reviewFeedService.reviewRemoved(deletedReview)))
                 .then(ServerResponse.noContent().build());
     }
+
+    private static ReviewPreconditionFailedException preconditionFailed(String reviewId) {
+        return new ReviewPreconditionFailedException("review.If-Match: does not match the current version for the passed in Id: " + reviewId);
+    }
+
+    /**
+     * Tells apart why a conditional write matched nothing; only this failure path pays for the
+     * extra lookup.
+     */
+    private Mono<Review> missingOrConflict(String reviewId, Long expectedVersion) {
+        if (expectedVersion == null)
+            return Mono.error(new ReviewNotFoundException("Review not found for the passed in Id: " + reviewId));
+        return reviewReactiveRepository.existsById(reviewId)
+                .flatMap(exists -> Mono.error(exists
+                        ? new ReviewConflictException("review.version: " + expectedVersion + " is stale for the passed in Id: " + reviewId)
+                        : new ReviewNotFoundException("Review not found for the passed in Id: " + reviewId)));
+    }
+
+    private static Long parseVersion(String version) {
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException ex) {
+            throw new ReviewDataException("review.version: must be a number");
+        }
+    }
+
+    /**
+     * Reviews of one movie as they are written, as server-sent events unless NDJSON is asked for.
+     */
+    public Mono<ServerResponse> streamReviews(ServerRequest request) {
+        final Long movieInfoId;
+        try {
+            movieInfoId = Long.valueOf(request.pathVariable("movieInfoId"));
+        } catch (NumberFormatException ex) {
+            return Mono.error(new ReviewDataException("stream.movieInfoId: must be a number"));
+        }
+        var events = reviewFeedService.feed(movieInfoId);
+        if (MediaType.APPLICATION_NDJSON.equals(responseType(request)))
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(events, ReviewEvent.class);
+
+        var serverSentEvents = Flux.merge(
+                events.map(event -> ServerSentEvent.builder(event)
+                        .id(event.getEventId())
+                        .event(event.getType().name())
+                        .build()),
+                Flux.interval(reviewFeedProperties.getHeartbeat())
+                        .map(tick -> ServerSentEvent.<ReviewEvent>builder().comment("heartbeat").build()));
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(serverSentEvents, new ParameterizedTypeReference<ServerSentEvent<ReviewEvent>>() {
+                });
+    }
+
+    public Mono<ServerResponse> getReviewSummary(ServerRequest request) {
+        final Long movieInfoId;
+        try {
+            movieInfoId = Long.valueOf(request.pathVariable("movieInfoId"));
+        } catch (NumberFormatException ex) {
+            return Mono.error(new ReviewDataException("summary.movieInfoId: must be a number"));
+        }
+        return reviewSummaryService.getSummary(movieInfoId)
+                .flatMap(summary -> {
+                    var etag = summaryETag(summary);
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                    .contentType(valueResponseType(request))
+                                    .eTag(etag)
+                                    .bodyValue(summary)));
+                });
+    }
+
+    private static String summaryETag(ReviewSummary summary) {
+        return ETags.weak(summary.getMovieInfoId() + ":" + summary.getCount() + ":" + summary.getSum()
+                + ":" + summary.getUpdatedAt());
+    }
 }
@@ -0,0 +1,55 @@
+package br.com.moraesit.movies.review.service.repository;
+
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewGroup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * The read methods take the {@link FieldSelection} as a projection; the id is always returned.
+ */
+public interface ReviewReactiveRepositoryCustom {
+
+    /**
+     * Keyset page ordered by {@code _id}: returns up to {@code limit} reviews whose id sorts
+     * after {@code afterId} (or from the start when it is null), optionally restricted to a movie.
+     */
+    Flux<Review> findPage(Long movieInfoId, String afterId, int limit, FieldSelection fields);
+
+    /**
+     * Streams every review (optionally restricted to a movie) as the cursor produces it, fetching
+     * {@code batchSize} documents per round trip and never requesting more than that downstream.
+     */
+    Flux<Review> streamAll(Long movieInfoId, int batchSize, FieldSelection fields);
+
+    /**
+     * Streams the reviews of all the given movies from a single {@code $in} query, ordered by
+     * movieInfoId and then {@code _id} so that the reviews of each movie arrive together.
+     */
+    Flux<Review> streamByMovieInfoIds(Collection<Long> movieInfoIds, int batchSize, FieldSelection fields);
+
+    /**
+     * The oldest {@code perMovieLimit} reviews of each of the given movies, one group per movie
+     * that has reviews, in ascending movieInfoId order. Each movie is a limited query on the
+     * movieInfoId_id index, so at most {@code perMovieLimit} reviews of a movie are ever read.
+     */
+    Flux<ReviewGroup> findFirstPerMovie(Collection<Long> movieInfoIds, int perMovieLimit, FieldSelection fields);
+
+    /**
+     * Sets comment, rating and last modified date and bumps the version in one findAndModify,
+     * returning the review as it was before the update. Empty when the id does not exist or, when {@code expectedVersion}
+     * is given, when the stored version no longer matches it.
+     */
+    Mono<Review> updateAndGetPrevious(String reviewId, Long expectedVersion, String comment, Double rating,
+                                      Instant lastModified);
+
+    /**
+     * Removes the review in one findAndRemove and returns it, with the same matching rules as
+     * {@link #updateAndGetPrevious}.
+     */
+    Mono<Review> deleteAndGet(String reviewId, Long expectedVersion);
+}
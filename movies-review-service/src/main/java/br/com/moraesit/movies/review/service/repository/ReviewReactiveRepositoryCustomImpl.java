@@ -0,0 +1,109 @@
+package br.com.moraesit.movies.review.service.repository;
+
+import br.com.moraesit.movies.common.pagination.KeysetCriteria;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewGroup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.TreeSet;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReviewReactiveRepositoryCustomImpl implements ReviewReactiveRepositoryCustom {
+
+    private static final int PER_MOVIE_CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReviewReactiveRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Review> findPage(Long movieInfoId, String afterId, int limit, FieldSelection fields) {
+        var query = project(new Query(), fields);
+        if (movieInfoId != null)
+            query.addCriteria(where("movieInfoId").is(movieInfoId));
+        if (afterId != null)
+            query.addCriteria(KeysetCriteria.idAfter(afterId));
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return reactiveMongoTemplate.find(query, Review.class);
+    }
+
+    @Override
+    public Flux<Review> streamAll(Long movieInfoId, int batchSize, FieldSelection fields) {
+        var query = project(new Query(), fields);
+        if (movieInfoId != null)
+            query.addCriteria(where("movieInfoId").is(movieInfoId));
+        query.cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, Review.class)
+                .limitRate(batchSize);
+    }
+
+    @Override
+    public Flux<Review> streamByMovieInfoIds(Collection<Long> movieInfoIds, int batchSize, FieldSelection fields) {
+        var query = project(new Query(where("movieInfoId").in(movieInfoIds)), fields)
+                .with(Sort.by(Sort.Direction.ASC, "movieInfoId", "_id"));
+        query.cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, Review.class)
+                .limitRate(batchSize);
+    }
+
+    /**
+     * A server side limit per group needs $topN (Mongo 5.2) or a $lookup sub-pipeline (3.6), so the
+     * movies are queried one by one, a few at a time, and their results kept in order.
+     */
+    @Override
+    public Flux<ReviewGroup> findFirstPerMovie(Collection<Long> movieInfoIds, int perMovieLimit, FieldSelection fields) {
+        return Flux.fromIterable(new TreeSet<>(movieInfoIds))
+                .flatMapSequential(movieInfoId -> {
+                    var query = project(new Query(where("movieInfoId").is(movieInfoId)), fields)
+                            .with(Sort.by(Sort.Direction.ASC, "_id"))
+                            .limit(perMovieLimit);
+                    return reactiveMongoTemplate.find(query, Review.class)
+                            .collectList()
+                            .filter(reviews -> !reviews.isEmpty())
+                            .map(reviews -> new ReviewGroup(movieInfoId, reviews));
+                }, PER_MOVIE_CONCURRENCY);
+    }
+
+    @Override
+    public Mono<Review> updateAndGetPrevious(String reviewId, Long expectedVersion, String comment, Double rating,
+                                             Instant lastModified) {
+        var update = new Update()
+                .set("comment", comment)
+                .set("rating", rating)
+                .set("lastModified", lastModified)
+                .inc("version", 1);
+        return reactiveMongoTemplate.findAndModify(byIdAndVersion(reviewId, expectedVersion), update, Review.class);
+    }
+
+    @Override
+    public Mono<Review> deleteAndGet(String reviewId, Long expectedVersion) {
+        return reactiveMongoTemplate.findAndRemove(byIdAndVersion(reviewId, expectedVersion), Review.class);
+    }
+
+    /**
+     * Property names are mapped to document fields by the template, reviewId to {@code _id}.
+     */
+    private static Query project(Query query, FieldSelection fields) {
+        if (!fields.isAll())
+            query.fields().include(fields.toArray());
+        return query;
+    }
+
+    private static Query byIdAndVersion(String reviewId, Long expectedVersion) {
+        var query = new Query(where("_id").is(reviewId));
+        if (expectedVersion != null)
+            query.addCriteria(where("version").is(expectedVersion));
+        return query;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
@@ -17,7 +18,10 @@ public class ReviewRouter {
         return route()
                 .nest(path("/v1/reviews"), builder -> {
                     builder.POST("", reviewHandler::addReview)
+                            .GET("", queryParam("movieInfoIds", movieInfoIds -> true), reviewHandler::getReviewsByMovies)
                             .GET("", reviewHandler::getReviews)
+                            .GET("/summary/{movieInfoId}", reviewHandler::getReviewSummary)
+                            .GET("/stream/{movieInfoId}", reviewHandler::streamReviews)
                             .PUT("/{id}", reviewHandler::updateReview)
                             .DELETE("/{id}", reviewHandler::deleteReview);
                 })
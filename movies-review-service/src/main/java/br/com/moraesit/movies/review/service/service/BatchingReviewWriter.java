@@ -0,0 +1,169 @@
+package br.com.moraesit.movies.review.service.service;
+
+import br.com.moraesit.movies.review.service.config.WriteBatchingProperties;
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.exception.ReviewWriteRejectedException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent saves into size or time bounded windows, each written with a single
+ * unordered insertMany. Every caller still completes with its own saved review or its own error:
+ * the write errors of a batch carry the index of the review they belong to, and every other review
+ * of the batch was stored.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "reviews.write-batching", name = "enabled", havingValue = "true")
+public class BatchingReviewWriter implements ReviewWriter, DisposableBean {
+
+    private static final MongoExceptionTranslator EXCEPTION_TRANSLATOR = new MongoExceptionTranslator();
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final int queueCapacity;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final Sinks.Many<PendingWrite> pendingWrites = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<PendingWrite>unbounded().get());
+
+    private final DistributionSummary batchSize;
+
+    private final Counter rejected;
+
+    public BatchingReviewWriter(ReactiveMongoTemplate reactiveMongoTemplate,
+                                WriteBatchingProperties properties, MeterRegistry meterRegistry) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.queueCapacity = properties.getQueueCapacity();
+        this.batchSize = DistributionSummary.builder("reviews.write.batch.size")
+                .description("Reviews written per insertMany")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reviews.write.rejected")
+                .description("Reviews refused because the batching queue was full")
+                .register(meterRegistry);
+        Gauge.builder("reviews.write.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Reviews waiting to be written")
+                .register(meterRegistry);
+
+        pendingWrites.asFlux()
+                .bufferTimeout(properties.getMaxBatchSize(), properties.getMaxLinger())
+                // bufferTimeout cannot be back-pressured on its timer; the queue bound above keeps this finite
+                .onBackpressureBuffer()
+                .concatMap(this::write)
+                .subscribe(null, ex -> log.error("review write batching stopped: {}", ex.getMessage(), ex));
+    }
+
+    @Override
+    public Mono<Review> save(Review review) {
+        return Mono.create(sink -> {
+            if (queueDepth.incrementAndGet() > queueCapacity) {
+                queueDepth.decrementAndGet();
+                rejected.increment();
+                sink.error(new ReviewWriteRejectedException("review write queue is full, try again later"));
+                return;
+            }
+            if (review.getReviewId() == null)
+                review.setReviewId(new ObjectId().toHexString());
+
+            Sinks.EmitResult emitResult;
+            synchronized (pendingWrites) {
+                emitResult = pendingWrites.tryEmitNext(new PendingWrite(review, sink));
+            }
+            if (emitResult.isFailure()) {
+                queueDepth.decrementAndGet();
+                sink.error(new ReviewWriteRejectedException("review write queue is closed: " + emitResult));
+            }
+        });
+    }
+
+    private Mono<Void> write(List<PendingWrite> batch) {
+        queueDepth.addAndGet(-batch.size());
+        batchSize.record(batch.size());
+
+        var converter = reactiveMongoTemplate.getConverter();
+        var documents = new ArrayList<Document>(batch.size());
+        // Mongo keeps milliseconds, so the review answered is the one a later read returns
+        var now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (var pendingWrite : batch) {
+            // insertMany bypasses the mapping callbacks, so version and audit fields are set here
+            pendingWrite.review().setVersion(0L);
+            pendingWrite.review().setLastModified(now);
+            var document = new Document();
+            converter.write(pendingWrite.review(), document);
+            documents.add(document);
+        }
+
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Review.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(insertManyResult -> Map.<Integer, RuntimeException>of())
+                .onErrorResume(MongoBulkWriteException.class, ex -> Mono.just(ex.getWriteErrors().stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, BatchingReviewWriter::translate, (first, second) -> first))))
+                .doOnNext(writeErrors -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        var writeError = writeErrors.get(i);
+                        if (writeError != null)
+                            batch.get(i).sink().error(writeError);
+                        else
+                            batch.get(i).sink().success(batch.get(i).review());
+                    }
+                })
+                .then()
+                .onErrorResume(ex -> {
+                    // not a per document error, so which reviews were stored is unknown
+                    log.error("insertMany of {} reviews failed: {}", batch.size(), ex.getMessage(), ex);
+                    var error = ex instanceof RuntimeException runtimeException
+                            ? Objects.requireNonNullElse(EXCEPTION_TRANSLATOR.translateExceptionIfPossible(runtimeException), runtimeException)
+                            : ex;
+                    batch.forEach(pendingWrite -> pendingWrite.sink().error(error));
+                    return Mono.empty();
+                });
+    }
+
+    private static RuntimeException translate(BulkWriteError writeError) {
+        if (ErrorCategory.fromErrorCode(writeError.getCode()) == ErrorCategory.DUPLICATE_KEY)
+            return new DuplicateKeyException(writeError.getMessage());
+        return new DataIntegrityViolationException(writeError.getMessage());
+    }
+
+    @Override
+    public void destroy() {
+        // completing the sink flushes the batch still lingering in bufferTimeout
+        synchronized (pendingWrites) {
+            pendingWrites.tryEmitComplete();
+        }
+    }
+
+    private record PendingWrite(Review review, MonoSink<Review> sink) {
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.moraesit.movies.review.service.service;
+
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.repository.ReviewReactiveRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnProperty(prefix = "reviews.write-batching", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class DirectReviewWriter implements ReviewWriter {
+
+    private final ReviewReactiveRepository reviewReactiveRepository;
+
+    public DirectReviewWriter(ReviewReactiveRepository reviewReactiveRepository) {
+        this.reviewReactiveRepository = reviewReactiveRepository;
+    }
+
+    @Override
+    public Mono<Review> save(Review review) {
+        return reviewReactiveRepository.save(review);
+    }
+}
@@ -0,0 +1,196 @@
+package br.com.moraesit.movies.review.service.service;
+
+import br.com.moraesit.movies.review.service.config.ReviewFeedProperties;
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewEvent;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Live feed of review writes. Every write is appended to a capped collection, and each instance
+ * tails it with one shared cursor that all of its subscribers filter, so a feed sees the writes
+ * of every instance. Subscribers get a bounded buffer of their own; a slow one overflows it
+ * without holding back the cursor or the other subscribers.
+ */
+@Slf4j
+@Service
+public class ReviewFeedService {
+
+    private static final int NAMESPACE_EXISTS = 48;
+
+    /**
+     * How far back a reopened cursor starts, in seconds, to pick up events another instance
+     * wrote with a slightly older clock.
+     */
+    private static final int RESUME_SKEW_SECONDS = 1;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final ReviewFeedProperties properties;
+
+    private final AtomicBoolean collectionReady = new AtomicBoolean();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter overflows;
+
+    private final Flux<ReviewEvent> sharedEvents;
+
+    public ReviewFeedService(ReactiveMongoTemplate reactiveMongoTemplate, ReviewFeedProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.properties = properties;
+        this.overflows = Counter.builder("reviews.feed.overflows")
+                .description("Events a feed subscriber could not keep up with")
+                .tag("strategy", properties.getOverflowStrategy().name())
+                .register(meterRegistry);
+        Gauge.builder("reviews.feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Live review feed subscribers on this instance")
+                .register(meterRegistry);
+
+        // the cursor opens with the first subscriber and closes with the last one
+        this.sharedEvents = Flux.defer(() -> tail(new TailPosition(Instant.now())))
+                .publish()
+                .refCount();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createCollection() {
+        ensureCollection().subscribe(null, ex -> log.error("review events collection setup failed: {}", ex.getMessage(), ex));
+    }
+
+    public Mono<Void> reviewAdded(Review review) {
+        return append(ReviewEvent.Type.ADDED, review);
+    }
+
+    public Mono<Void> reviewUpdated(Review review) {
+        return append(ReviewEvent.Type.UPDATED, review);
+    }
+
+    public Mono<Void> reviewRemoved(Review review) {
+        return append(ReviewEvent.Type.DELETED, review);
+    }
+
+    /**
+     * Events for one movie written from now on. Never completes; an overflowing subscriber is
+     * disconnected with an error or loses events, depending on the configured strategy.
+     */
+    public Flux<ReviewEvent> feed(Long movieInfoId) {
+        return sharedEvents
+                .filter(event -> movieInfoId.equals(event.getMovieInfoId()))
+                .onBackpressureBuffer(properties.getSubscriberBufferSize(), event -> overflows.increment(),
+                        properties.getOverflowStrategy())
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signalType -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Failures are logged and never fail the review write itself; the feed is best effort.
+     */
+    private Mono<Void> append(ReviewEvent.Type type, Review review) {
+        return ensureCollection()
+                .then(reactiveMongoTemplate.insert(ReviewEvent.of(type, review)))
+                .then()
+                .onErrorResume(ex -> {
+                    log.error("review event {} failed for reviewId {}: {}", type, review.getReviewId(), ex.getMessage(), ex);
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<ReviewEvent> tail(TailPosition position) {
+        // a tailable cursor dies when it reaches the end of an empty collection, so it is reopened
+        return ensureCollection()
+                .thenMany(Flux.defer(() -> reactiveMongoTemplate.tail(position.query(), ReviewEvent.class)))
+                .filter(position::advance)
+                .repeatWhen(completions -> completions.delayElements(properties.getReconnectDelay()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectDelay())
+                        .maxBackoff(Duration.ofSeconds(10))
+                        .doBeforeRetry(signal -> log.warn("review events cursor failed, reopening: {}",
+                                signal.failure().getMessage())));
+    }
+
+    /**
+     * The events collection has to be capped before the first event is written, otherwise the
+     * insert creates a regular collection that cannot be tailed.
+     */
+    private Mono<Void> ensureCollection() {
+        return Mono.defer(() -> {
+            if (collectionReady.get())
+                return Mono.empty();
+            return reactiveMongoTemplate.collectionExists(ReviewEvent.class)
+                    .flatMap(exists -> exists ? Mono.<Void>empty() : reactiveMongoTemplate
+                            .createCollection(ReviewEvent.class, CollectionOptions.empty()
+                                    .capped()
+                                    .size(properties.getCollectionSize().toBytes())
+                                    .maxDocuments(properties.getMaxEvents()))
+                            .doOnNext(collection -> log.info("created capped collection {}",
+                                    reactiveMongoTemplate.getCollectionName(ReviewEvent.class)))
+                            .then())
+                    // another instance created it first
+                    .onErrorResume(ReviewFeedService::isNamespaceExists, ex -> Mono.empty())
+                    .doOnSuccess(done -> collectionReady.set(true));
+        });
+    }
+
+    private static boolean isNamespaceExists(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == NAMESPACE_EXISTS)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Where a reopened cursor resumes. Capped collections return events in insertion order, which
+     * across instances is not strictly the ObjectId order, so the cursor restarts a little before
+     * the newest event seen and the events already delivered are skipped.
+     */
+    private static class TailPosition {
+
+        private int floorSeconds;
+
+        private final Set<ObjectId> delivered = new HashSet<>();
+
+        TailPosition(Instant start) {
+            this.floorSeconds = (int) start.getEpochSecond();
+        }
+
+        Query query() {
+            return new Query(where("_id").gte(new ObjectId(String.format("%08x%016x", floorSeconds, 0))));
+        }
+
+        boolean advance(ReviewEvent event) {
+            var eventId = new ObjectId(event.getEventId());
+            if (!delivered.add(eventId))
+                return false;
+            var floor = eventId.getTimestamp() - RESUME_SKEW_SECONDS;
+            if (floor > floorSeconds) {
+                floorSeconds = floor;
+                delivered.removeIf(id -> id.getTimestamp() < floorSeconds);
+            }
+            return true;
+        }
+    }
+}
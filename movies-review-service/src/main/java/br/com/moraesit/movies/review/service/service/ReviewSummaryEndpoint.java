@@ -0,0 +1,28 @@
+package br.com.moraesit.movies.review.service.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Rebuilds the review summaries on a POST to /actuator/reviewsummaries. It is an operations task,
+ * so it sits with the management endpoints instead of the public review routes.
+ */
+@Component
+@Endpoint(id = "reviewsummaries")
+public class ReviewSummaryEndpoint {
+
+    private final ReviewSummaryService reviewSummaryService;
+
+    public ReviewSummaryEndpoint(ReviewSummaryService reviewSummaryService) {
+        this.reviewSummaryService = reviewSummaryService;
+    }
+
+    @WriteOperation
+    public Mono<Map<String, Long>> rebuild() {
+        return reviewSummaryService.rebuild();
+    }
+}
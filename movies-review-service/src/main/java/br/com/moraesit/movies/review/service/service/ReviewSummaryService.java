@@ -0,0 +1,184 @@
+package br.com.moraesit.movies.review.service.service;
+
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Maintains the per movie {@link ReviewSummary} documents. Every review write is folded in with a
+ * single atomic update, so reading a summary is one lookup by id. Failures are logged and never
+ * fail the review write itself; {@link #rebuild()} repairs any drift from the reviews collection.
+ */
+@Slf4j
+@Service
+public class ReviewSummaryService {
+
+    private static final int REBUILD_CONCURRENCY = 16;
+
+    private static final String PENDING_REBUILD_ID = "pendingRebuildId";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReviewSummaryService(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    public Mono<ReviewSummary> getSummary(Long movieInfoId) {
+        return reactiveMongoTemplate.findById(movieInfoId, ReviewSummary.class)
+                .defaultIfEmpty(new ReviewSummary(movieInfoId));
+    }
+
+    public Mono<Void> reviewAdded(Review review) {
+        if (!isRated(review))
+            return Mono.empty();
+        var rating = review.getRating();
+        var update = increment(rating, 1)
+                .min("min", rating)
+                .max("max", rating);
+        return quietly("add", review.getMovieInfoId(),
+                reactiveMongoTemplate.upsert(byId(review.getMovieInfoId()), update, ReviewSummary.class));
+    }
+
+    public Mono<Void> reviewRemoved(Review review) {
+        if (!isRated(review))
+            return Mono.empty();
+        var movieInfoId = review.getMovieInfoId();
+        var rating = review.getRating();
+        return quietly("remove", movieInfoId, reactiveMongoTemplate
+                .findAndModify(byId(movieInfoId), increment(rating, -1),
+                        FindAndModifyOptions.options().returnNew(true), ReviewSummary.class)
+                .flatMap(summary -> {
+                    if (summary.getCount() <= 0)
+                        return reactiveMongoTemplate.remove(query(where("_id").is(movieInfoId).and("count").lte(0)),
+                                ReviewSummary.class).then();
+                    // $min/$max cannot move a bound back, so it is recomputed when the removed rating held it
+                    if (summary.getMin() == null || rating <= summary.getMin()
+                            || summary.getMax() == null || rating >= summary.getMax())
+                        return recomputeBounds(movieInfoId);
+                    return Mono.empty();
+                }));
+    }
+
+    public Mono<Void> reviewUpdated(Review previous, Review updated) {
+        if (Objects.equals(previous.getMovieInfoId(), updated.getMovieInfoId())
+                && Objects.equals(previous.getRating(), updated.getRating()))
+            return Mono.empty();
+        return reviewRemoved(previous).then(reviewAdded(updated));
+    }
+
+    /**
+     * Recomputes every summary from the reviews collection, grouping by movie and histogram bucket
+     * in Mongo and folding the buckets of each movie here. The summaries present when it starts are
+     * marked with a fresh rebuild id; the ones neither rebuilt nor touched by a review write since
+     * still carry it at the end and are removed, so no two clocks are ever compared. Writes racing
+     * with a rebuild may be lost; running it again settles them.
+     */
+    public Mono<Map<String, Long>> rebuild() {
+        var rebuildId = new ObjectId().toHexString();
+        var pipeline = List.of(
+                new Document("$match", new Document("rating", new Document("$ne", null))
+                        .append("movieInfoId", new Document("$ne", null))),
+                new Document("$project", new Document("movieInfoId", 1)
+                        .append("rating", 1)
+                        .append("bucket", new Document("$max", List.of(0,
+                                new Document("$min", List.of(ReviewSummary.MAX_BUCKET,
+                                        new Document("$floor", "$rating"))))))),
+                new Document("$group", new Document("_id", new Document("movieInfoId", "$movieInfoId")
+                        .append("bucket", "$bucket"))
+                        .append("count", new Document("$sum", 1))
+                        .append("sum", new Document("$sum", "$rating"))
+                        .append("min", new Document("$min", "$rating"))
+                        .append("max", new Document("$max", "$rating"))),
+                new Document("$sort", new Document("_id.movieInfoId", 1)));
+
+        var rebuilt = reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Review.class))
+                .flatMapMany(collection -> collection.aggregate(pipeline).allowDiskUse(true))
+                .bufferUntilChanged(bucket -> bucket.get("_id", Document.class).get("movieInfoId"))
+                .map(buckets -> summaryOf(buckets, rebuildId))
+                .flatMap(reactiveMongoTemplate::save, REBUILD_CONCURRENCY)
+                .count();
+
+        return reactiveMongoTemplate
+                .updateMulti(new Query(), new Update().set(PENDING_REBUILD_ID, rebuildId), ReviewSummary.class)
+                .then(rebuilt)
+                .flatMap(rebuiltCount -> reactiveMongoTemplate
+                        .remove(query(where(PENDING_REBUILD_ID).is(rebuildId)), ReviewSummary.class)
+                        .map(deleteResult -> {
+                            log.info("review summaries rebuilt: rebuildId={}, rebuilt={}, removed={}",
+                                    rebuildId, rebuiltCount, deleteResult.getDeletedCount());
+                            return Map.of("rebuilt", rebuiltCount, "removed", deleteResult.getDeletedCount());
+                        }));
+    }
+
+    private static ReviewSummary summaryOf(List<Document> buckets, String rebuildId) {
+        var summary = new ReviewSummary(((Number) buckets.get(0).get("_id", Document.class).get("movieInfoId")).longValue());
+        for (var bucket : buckets) {
+            var count = ((Number) bucket.get("count")).longValue();
+            var min = ((Number) bucket.get("min")).doubleValue();
+            var max = ((Number) bucket.get("max")).doubleValue();
+            summary.setCount(summary.getCount() + count);
+            summary.setSum(summary.getSum() + ((Number) bucket.get("sum")).doubleValue());
+            summary.setMin(summary.getMin() == null ? min : Math.min(summary.getMin(), min));
+            summary.setMax(summary.getMax() == null ? max : Math.max(summary.getMax(), max));
+            summary.getHistogram().put(String.valueOf(((Number) bucket.get("_id", Document.class).get("bucket")).intValue()), count);
+        }
+        summary.setRebuildId(rebuildId);
+        summary.setUpdatedAt(Instant.now());
+        return summary;
+    }
+
+    private Mono<Void> recomputeBounds(Long movieInfoId) {
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("movieInfoId").is(movieInfoId).and("rating").ne(null)),
+                Aggregation.group("movieInfoId").min("rating").as("min").max("rating").as("max"));
+        return reactiveMongoTemplate.aggregate(aggregation, Review.class, Document.class)
+                .next()
+                .flatMap(bounds -> reactiveMongoTemplate.updateFirst(byId(movieInfoId), new Update()
+                        .set("min", bounds.get("min"))
+                        .set("max", bounds.get("max")), ReviewSummary.class))
+                .then();
+    }
+
+    private static Update increment(double rating, int delta) {
+        return new Update()
+                .inc("count", delta)
+                .inc("sum", delta * rating)
+                .inc("histogram." + ReviewSummary.bucket(rating), delta)
+                .set("updatedAt", Instant.now())
+                .unset(PENDING_REBUILD_ID);
+    }
+
+    private static Query byId(Long movieInfoId) {
+        return query(where("_id").is(movieInfoId));
+    }
+
+    private static boolean isRated(Review review) {
+        return review.getMovieInfoId() != null && review.getRating() != null;
+    }
+
+    private static Mono<Void> quietly(String operation, Long movieInfoId, Mono<?> update) {
+        return update
+                .then()
+                .onErrorResume(ex -> {
+                    log.error("review summary {} failed for movieInfoId {}: {}", operation, movieInfoId, ex.getMessage(), ex);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.moraesit.movies.review.service.service;
+
+import br.com.moraesit.movies.review.service.domain.Review;
+import reactor.core.publisher.Mono;
+
+public interface ReviewWriter {
+
+    Mono<Review> save(Review review);
+}
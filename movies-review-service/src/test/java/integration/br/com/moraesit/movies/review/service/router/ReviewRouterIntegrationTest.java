@@ -1,6 +1,11 @@
 package br.com.moraesit.movies.review.service.router;
 
+import br.com.moraesit.movies.common.codec.MediaTypes;
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
 import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewEvent;
+import br.com.moraesit.movies.review.service.domain.ReviewGroup;
+import br.com.moraesit.movies.review.service.domain.ReviewSummary;
 import br.com.moraesit.movies.review.service.repository.ReviewReactiveRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,14 +13,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
@@ -29,6 +47,9 @@ class ReviewRouterIntegrationTest {
     @Autowired
     ReviewReactiveRepository reviewReactiveRepository;
 
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
     static String REVIEWS_URL = "/v1/reviews";
 
     @BeforeEach
@@ -45,6 +66,7 @@ class ReviewRouterIntegrationTest {
     @AfterEach
     void tearDown() {
         reviewReactiveRepository.deleteAll().block();
+        reactiveMongoTemplate.remove(new Query(), ReviewSummary.class).block();
     }
 
     @Test
@@ -66,6 +88,9 @@ class ReviewRouterIntegrationTest {
                     assertNotNull(savedReview.getMovieInfoId());
                     assertEquals("Awesome Movie", savedReview.getComment());
                     assertEquals(9.0, savedReview.getRating());
+                    var storedReview = reviewReactiveRepository.findById(savedReview.getReviewId()).block();
+                    assertNotNull(storedReview);
+                    assertEquals(storedReview.getLastModified(), savedReview.getLastModified());
                 });
     }
 
@@ -109,9 +134,77 @@ class ReviewRouterIntegrationTest {
                     assertNotNull(updatedReview.getReviewId());
                     assertEquals(8.0, updatedReview.getRating());
                     assertEquals("Not an Awesome Movie", updatedReview.getComment());
+                    // the response describes exactly what the next read returns
+                    var storedReview = reviewReactiveRepository.findById(updatedReview.getReviewId()).block();
+                    assertNotNull(storedReview);
+                    assertEquals(storedReview.getLastModified(), updatedReview.getLastModified());
                 });
     }
 
+    @Test
+    void updateReview_staleVersion() {
+        var savedReview = reviewReactiveRepository.save(new Review(null, 1L, "Awesome Movie", 9.0)).block();
+
+        assertNotNull(savedReview);
+        assertEquals(0L, savedReview.getVersion());
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0, 0L))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Review.class)
+                .value(updatedReview -> assertEquals(1L, updatedReview.getVersion()));
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .bodyValue(new Review(null, 1L, "Lost update", 1.0, 0L))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT);
+
+        assertEquals("Not an Awesome Movie",
+                reviewReactiveRepository.findById(savedReview.getReviewId()).map(Review::getComment).block());
+    }
+
+    @Test
+    void updateReview_ifMatch() {
+        var savedReview = reviewReactiveRepository.save(new Review(null, 1L, "Awesome Movie", 9.0)).block();
+
+        assertNotNull(savedReview);
+        assertNotNull(savedReview.getLastModified());
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .ifMatch("\"0\"")
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .ifMatch("\"0\"")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .ifMatch("\"1\"")
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+    }
+
     @Test
     void deleteReview() {
         var review = new Review(null, 1L, "Awesome Movie", 9.0);
@@ -144,4 +237,288 @@ class ReviewRouterIntegrationTest {
                     assertEquals(2, reviews.size());
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    void getReviewsPage() {
+        var reviewIds = new ArrayList<String>();
+        String after = null;
+        do {
+            var cursor = after;
+            var result = webTestClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                            .queryParam("movieInfoId", "1")
+                            .queryParam("limit", "1")
+                            .queryParamIfPresent("after", Optional.ofNullable(cursor))
+                            .build())
+                    .exchange()
+                    .expectStatus()
+                    .is2xxSuccessful()
+                    .expectBodyList(Review.class)
+                    .hasSize(1)
+                    .returnResult();
+
+            result.getResponseBody().forEach(review -> reviewIds.add(review.getReviewId()));
+            after = result.getResponseHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+        } while (after != null);
+
+        assertEquals(2, reviewIds.size());
+        assertEquals(2, new HashSet<>(reviewIds).size());
+    }
+
+    @Test
+    void getReviews_fields() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("fields", "rating")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].reviewId").exists()
+                .jsonPath("$[0].rating").exists()
+                .jsonPath("$[0].comment").doesNotExist()
+                .jsonPath("$[0].movieInfoId").doesNotExist();
+    }
+
+    @Test
+    void getReviewsPage_notModified() {
+        var etag = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("limit", "5")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(Review.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("limit", "5")
+                        .build())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+
+        reviewReactiveRepository.save(new Review(null, 1L, "Another Movie Night", 7.0)).block();
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("limit", "5")
+                        .build())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Review.class)
+                .hasSize(3);
+    }
+
+    @Test
+    void getReviewsByMovies() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "2,1,3")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(ReviewGroup.class)
+                .value(groups -> {
+                    assertEquals(3, groups.size());
+                    assertEquals(1L, groups.get(0).getMovieInfoId());
+                    assertEquals(2, groups.get(0).getReviews().size());
+                    assertEquals(2L, groups.get(1).getMovieInfoId());
+                    assertEquals(1, groups.get(1).getReviews().size());
+                    assertEquals(3L, groups.get(2).getMovieInfoId());
+                    assertEquals(0, groups.get(2).getReviews().size());
+                });
+    }
+
+    @Test
+    void getReviewsByMovies_perMovieLimit() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "2,1,3")
+                        .queryParam("perMovieLimit", "1")
+                        .queryParam("fields", "comment")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(ReviewGroup.class)
+                .value(groups -> {
+                    assertEquals(List.of(1L, 2L, 3L), groups.stream().map(ReviewGroup::getMovieInfoId).toList());
+                    assertEquals(List.of(1, 1, 0), groups.stream().map(group -> group.getReviews().size()).toList());
+                    var review = groups.get(1).getReviews().get(0);
+                    assertEquals("Bad Movie", review.getComment());
+                    assertNotNull(review.getReviewId());
+                    assertNull(review.getMovieInfoId());
+                    assertNull(review.getRating());
+                });
+    }
+
+    @Test
+    void getReviews_smile() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .build())
+                .accept(MediaTypes.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaTypes.APPLICATION_SMILE)
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviews_cbor() {
+        // the CBOR encoder cannot write a stream, so a streamed list falls back to JSON
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .build())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(Review.class)
+                .hasSize(2);
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "1,2")
+                        .build())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(ReviewGroup.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsPage_cbor() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("limit", "5")
+                        .build())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                // the CBOR decoder only reads whole values, so the list is decoded in one piece
+                .expectBody(new ParameterizedTypeReference<List<Review>>() {
+                })
+                .value(reviews -> assertEquals(2, reviews.size()));
+    }
+
+    @Test
+    void streamReviews() {
+        // the stream only commits its headers with the first event, so the write has to come from elsewhere
+        Mono.delay(Duration.ofMillis(500))
+                .subscribe(tick -> webTestClient
+                        .post()
+                        .uri(REVIEWS_URL)
+                        .bodyValue(new Review(null, 42L, "Live Movie", 7.0))
+                        .exchange()
+                        .expectStatus()
+                        .isCreated());
+
+        var events = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/stream/{movieInfoId}", 42)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(ReviewEvent.class)
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertEquals(ReviewEvent.Type.ADDED, event.getType());
+                    assertEquals(42L, event.getMovieInfoId());
+                    assertEquals("Live Movie", event.getReview().getComment());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void reviewSummary() {
+        // left over from reviews deleted while the summaries were not being kept up to date
+        var stale = new ReviewSummary(99L);
+        stale.setCount(1);
+        stale.setSum(5.0);
+        reactiveMongoTemplate.save(stale).block();
+
+        webTestClient
+                .post()
+                .uri("/actuator/reviewsummaries")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.rebuilt").isEqualTo(2)
+                .jsonPath("$.removed").isEqualTo(1);
+
+        var rebuilt = reactiveMongoTemplate.findById(1L, ReviewSummary.class).block();
+        assertNotNull(rebuilt);
+        assertNotNull(rebuilt.getRebuildId());
+        assertNull(rebuilt.getPendingRebuildId());
+        assertNull(reactiveMongoTemplate.findById(99L, ReviewSummary.class).block());
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, 1L, "Good Movie", 7.0))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/summary/{movieInfoId}", 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(3)
+                .jsonPath("$.average").isEqualTo(8.166666666666666)
+                .jsonPath("$.min").isEqualTo(7.0)
+                .jsonPath("$.max").isEqualTo(9.0)
+                .jsonPath("$.histogram['7']").isEqualTo(1)
+                .jsonPath("$.histogram['8']").isEqualTo(1)
+                .jsonPath("$.histogram['9']").isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.moraesit.movies.review.service.router;
+
+import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.repository.ReviewReactiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashSet;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@TestPropertySource(properties = {
+        "spring.mongodb.embedded.version=3.5.5",
+        "reviews.write-batching.enabled=true",
+        "reviews.write-batching.max-batch-size=8",
+        "reviews.write-batching.max-linger=20ms"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReviewWriteBatchingIntegrationTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    static String REVIEWS_URL = "/v1/reviews";
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+    }
+
+    @Test
+    void addReview_concurrently() {
+        var savedReviews = Flux.range(0, 20)
+                .parallel()
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> webTestClient
+                        .post()
+                        .uri(REVIEWS_URL)
+                        .bodyValue(new Review(null, 1L, "Review " + i, 7.0))
+                        .exchange()
+                        .expectStatus()
+                        .isCreated()
+                        .expectBody(Review.class)
+                        .returnResult()
+                        .getResponseBody())
+                .sequential()
+                .collectList()
+                .block();
+
+        var reviewIds = new HashSet<String>();
+        Objects.requireNonNull(savedReviews).forEach(review -> reviewIds.add(review.getReviewId()));
+
+        assertEquals(20, reviewIds.size());
+        assertEquals(20, reviewReactiveRepository.count().block());
+    }
+
+    @Test
+    void addReview_existingClientId() {
+        reviewReactiveRepository.save(new Review("abc", 1L, "Awesome Movie", 9.0)).block();
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review("abc", 2L, "Another Movie", 3.0))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT);
+
+        var stored = reviewReactiveRepository.findById("abc").block();
+        assertNotNull(stored);
+        assertEquals(1L, stored.getMovieInfoId());
+        assertEquals(1, reviewReactiveRepository.count().block());
+    }
+
+    @Test
+    void addReview_sameClientIdInOneBatch() {
+        // the first write of the id is stored and answered 201, only the other one is a conflict
+        var statuses = Flux.range(0, 8)
+                .parallel()
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> webTestClient
+                        .post()
+                        .uri(REVIEWS_URL)
+                        .bodyValue(new Review(i < 2 ? "xyz" : null, 1L, "Review " + i, 7.0))
+                        .exchange()
+                        .returnResult(Review.class)
+                        .getStatus())
+                .sequential()
+                .collectList()
+                .block();
+
+        assertNotNull(statuses);
+        assertEquals(7, statuses.stream().filter(HttpStatus.CREATED::equals).count());
+        assertEquals(1, statuses.stream().filter(HttpStatus.CONFLICT::equals).count());
+        assertNotNull(reviewReactiveRepository.findById("xyz").block());
+        assertEquals(7, reviewReactiveRepository.count().block());
+    }
+}
@@ -1,39 +1,81 @@
 package br.com.moraesit.movies.review.service.router;
 
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.web.FieldSelection;
+import br.com.moraesit.movies.review.service.config.ReviewFeedProperties;
+import br.com.moraesit.movies.review.service.config.StreamingConfig;
 import br.com.moraesit.movies.review.service.domain.Review;
+import br.com.moraesit.movies.review.service.domain.ReviewEvent;
+import br.com.moraesit.movies.review.service.domain.ReviewGroup;
+import br.com.moraesit.movies.review.service.domain.ReviewSummary;
+import br.com.moraesit.movies.review.service.exceptionhandler.GlobalErrorHandler;
 import br.com.moraesit.movies.review.service.handler.ReviewHandler;
 import br.com.moraesit.movies.review.service.repository.ReviewReactiveRepository;
+import br.com.moraesit.movies.review.service.service.DirectReviewWriter;
+import br.com.moraesit.movies.review.service.service.ReviewFeedService;
+import br.com.moraesit.movies.review.service.service.ReviewSummaryService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest
-@ContextConfiguration(classes = {ReviewRouter.class, ReviewHandler.class})
+@ContextConfiguration(classes = {ReviewRouter.class, ReviewHandler.class, GlobalErrorHandler.class,
+        StreamingConfig.class, ReviewFeedProperties.class, DirectReviewWriter.class})
 @AutoConfigureWebTestClient
 public class ReviewsUnitTest {
 
     @MockBean
     private ReviewReactiveRepository reviewReactiveRepository;
 
+    @MockBean
+    private ReviewSummaryService reviewSummaryService;
+
+    @MockBean
+    private ReviewFeedService reviewFeedService;
+
     @Autowired
     private WebTestClient webTestClient;
 
     static String REVIEWS_URL = "/v1/reviews";
 
+    @BeforeEach
+    void setUp() {
+        when(reviewSummaryService.reviewAdded(any())).thenReturn(Mono.empty());
+        when(reviewSummaryService.reviewUpdated(any(), any())).thenReturn(Mono.empty());
+        when(reviewSummaryService.reviewRemoved(any())).thenReturn(Mono.empty());
+        when(reviewFeedService.reviewAdded(any())).thenReturn(Mono.empty());
+        when(reviewFeedService.reviewUpdated(any())).thenReturn(Mono.empty());
+        when(reviewFeedService.reviewRemoved(any())).thenReturn(Mono.empty());
+    }
+
     @Test
     void addReview() {
         var review = new Review(null, 1L, "Awesome Movie", 9.0);
@@ -75,6 +117,58 @@ public class ReviewsUnitTest {
                 .isBadRequest();
     }
 
+    @Test
+    void addReview_duplicateId() {
+        var review = new Review("abc", 1L, "Awesome Movie", 9.0);
+
+        when(reviewReactiveRepository.save(isA(Review.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(String.class)
+                .isEqualTo("review.reviewId: already exists");
+    }
+
+    @Test
+    void addReview_versionIgnored() {
+        var review = new Review(null, 1L, "Awesome Movie", 9.0, 4L);
+
+        when(reviewReactiveRepository.save(argThat((Review saved) -> saved.getVersion() == null)))
+                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0, 0L)));
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+    }
+
+    @Test
+    void addReview_optimisticLockingFailure() {
+        var review = new Review("abc", 1L, "Awesome Movie", 9.0);
+
+        when(reviewReactiveRepository.save(isA(Review.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("Cannot save entity abc with version 4")));
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(String.class)
+                .isEqualTo("review.version: does not match the stored review");
+    }
+
     @Test
     void getAllReviews() {
         var reviewList = List.of(
@@ -82,7 +176,7 @@ public class ReviewsUnitTest {
                 new Review(null, 1L, "Awesome Movie1", 9.0),
                 new Review(null, 2L, "Excellent Movie", 8.0));
 
-        when(reviewReactiveRepository.findAll()).thenReturn(Flux.fromIterable(reviewList));
+        when(reviewReactiveRepository.streamAll(null, 256, FieldSelection.ALL)).thenReturn(Flux.fromIterable(reviewList));
 
         webTestClient
                 .get()
@@ -96,14 +190,176 @@ public class ReviewsUnitTest {
                 });
     }
 
+    @Test
+    void getReviews_ndjson() {
+        var reviewList = List.of(
+                new Review(null, 1L, "Awesome Movie", 9.0),
+                new Review(null, 1L, "Awesome Movie1", 9.0));
+
+        when(reviewReactiveRepository.streamAll(1L, 256, FieldSelection.ALL)).thenReturn(Flux.fromIterable(reviewList));
+
+        var reviews = webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        StepVerifier.create(reviews)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void getReviewsByMovies() {
+        var reviewList = List.of(
+                new Review("a1", 1L, "Awesome Movie", 9.0),
+                new Review("a2", 1L, "Awesome Movie1", 9.0),
+                new Review("a3", 3L, "Excellent Movie", 8.0));
+
+        when(reviewReactiveRepository.streamByMovieInfoIds(eq(new TreeSet<>(List.of(1L, 2L, 3L, 4L))), eq(256), eq(FieldSelection.ALL)))
+                .thenReturn(Flux.fromIterable(reviewList));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "3,1,2,4")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(ReviewGroup.class)
+                .value(groups -> {
+                    assertEquals(List.of(1L, 2L, 3L, 4L), groups.stream().map(ReviewGroup::getMovieInfoId).toList());
+                    assertEquals(List.of(2, 0, 1, 0), groups.stream().map(group -> group.getReviews().size()).toList());
+                    assertEquals("a1", groups.get(0).getReviews().get(0).getReviewId());
+                });
+    }
+
+    @Test
+    void getReviewsByMovies_perMovieLimit() {
+        var groupList = List.of(
+                new ReviewGroup(1L, List.of(new Review("a1", 1L, "Awesome Movie", 9.0))),
+                new ReviewGroup(3L, List.of(new Review("a3", 3L, "Excellent Movie", 8.0))));
+
+        when(reviewReactiveRepository.findFirstPerMovie(eq(new TreeSet<>(List.of(1L, 2L, 3L, 4L))), eq(1), eq(FieldSelection.ALL)))
+                .thenReturn(Flux.fromIterable(groupList));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "3,1,2,4")
+                        .queryParam("perMovieLimit", "1")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(ReviewGroup.class)
+                .value(groups -> {
+                    assertEquals(List.of(1L, 2L, 3L, 4L), groups.stream().map(ReviewGroup::getMovieInfoId).toList());
+                    assertEquals(List.of(1, 0, 1, 0), groups.stream().map(group -> group.getReviews().size()).toList());
+                });
+
+        verify(reviewReactiveRepository, never()).streamByMovieInfoIds(any(), anyInt(), any());
+    }
+
+    @Test
+    void getReviewsByMovies_invalidMovieInfoIds() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoIds", "1,abc")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getReviewsPage() {
+        var reviewList = List.of(
+                new Review("a1", 1L, "Awesome Movie", 9.0),
+                new Review("a2", 1L, "Awesome Movie1", 9.0),
+                new Review("a3", 1L, "Excellent Movie", 8.0));
+
+        when(reviewReactiveRepository.findPage(1L, null, 3, FieldSelection.ALL)).thenReturn(Flux.fromIterable(reviewList));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("movieInfoId", "1")
+                        .queryParam("limit", "2")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.encode("a2"))
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsPage_lastPage() {
+        var reviewList = List.of(new Review("a3", 1L, "Excellent Movie", 8.0));
+
+        when(reviewReactiveRepository.findPage(eq(null), eq("a2"), eq(3), eq(FieldSelection.ALL))).thenReturn(Flux.fromIterable(reviewList));
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("limit", "2")
+                        .queryParam("after", KeysetCursor.encode("a2"))
+                        .build())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER)
+                .expectBodyList(Review.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getReviewsPage_invalidCursor() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("limit", "2")
+                        .queryParam("after", "!!!")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getReviews_unknownFields() {
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(REVIEWS_URL)
+                        .queryParam("fields", "comment,author")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("fields: unknown author, allowed are comment,lastModified,movieInfoId,rating,reviewId,version");
+    }
+
     @Test
     void updateReview() {
         var reviewUpdate = new Review(null, 1L, "Not an Awesome Movie", 8.0);
 
-        when(reviewReactiveRepository.save(isA(Review.class)))
-                .thenReturn(Mono.just(new Review("abc", 1L, "Not an Awesome Movie", 8.0)));
-        when(reviewReactiveRepository.findById((String) any()))
-                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+        when(reviewReactiveRepository.updateAndGetPrevious(eq("abc"), isNull(), eq("Not an Awesome Movie"), eq(8.0), any()))
+                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0, 0L)));
 
         webTestClient
                 .put()
@@ -118,15 +374,64 @@ public class ReviewsUnitTest {
                     System.out.println("updatedReview : " + updatedReview);
                     assertEquals(8.0, updatedReview.getRating());
                     assertEquals("Not an Awesome Movie", updatedReview.getComment());
+                    assertEquals(1L, updatedReview.getVersion());
                 });
     }
 
+    @Test
+    void updateReview_ifMatchStale() {
+        var reviewUpdate = new Review(null, 1L, "Not an Awesome Movie", 8.0);
+
+        when(reviewReactiveRepository.updateAndGetPrevious(eq("abc"), eq(2L), any(), any(), any()))
+                .thenReturn(Mono.empty());
+
+        webTestClient
+                .put()
+                .uri("/v1/reviews/{id}", "abc")
+                .ifMatch("\"2\"")
+                .bodyValue(reviewUpdate)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        verify(reviewReactiveRepository, never()).existsById(any(String.class));
+    }
+
+    @Test
+    void updateReview_staleVersion() {
+        var reviewUpdate = new Review(null, 1L, "Not an Awesome Movie", 8.0, 3L);
+
+        when(reviewReactiveRepository.updateAndGetPrevious(eq("abc"), eq(3L), any(), any(), any()))
+                .thenReturn(Mono.empty());
+        when(reviewReactiveRepository.existsById("abc")).thenReturn(Mono.just(true));
+
+        webTestClient
+                .put()
+                .uri("/v1/reviews/{id}", "abc")
+                .bodyValue(reviewUpdate)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void updateReview_notFound() {
+        var reviewUpdate = new Review(null, 1L, "Not an Awesome Movie", 8.0);
+
+        when(reviewReactiveRepository.updateAndGetPrevious(eq("abc"), isNull(), any(), any(), any()))
+                .thenReturn(Mono.empty());
+
+        webTestClient
+                .put()
+                .uri("/v1/reviews/{id}", "abc")
+                .bodyValue(reviewUpdate)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void deleteReview() {
         var reviewId = "abc";
-        when(reviewReactiveRepository.findById((String) any()))
-                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
-        when(reviewReactiveRepository.deleteById((String) any())).thenReturn(Mono.empty());
+        when(reviewReactiveRepository.deleteAndGet(eq(reviewId), isNull()))
+                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0, 0L)));
 
         webTestClient
                 .delete()
@@ -134,4 +439,85 @@ public class ReviewsUnitTest {
                 .exchange()
                 .expectStatus().isNoContent();
     }
+
+    @Test
+    void getReviewSummary() {
+        var summary = new ReviewSummary(1L);
+        summary.setCount(2);
+        summary.setSum(17.0);
+        summary.setMin(8.0);
+        summary.setMax(9.0);
+        summary.setHistogram(Map.of("8", 1L, "9", 1L));
+
+        when(reviewSummaryService.getSummary(1L)).thenReturn(Mono.just(summary));
+
+        webTestClient
+                .get()
+                .uri("/v1/reviews/summary/{movieInfoId}", 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(2)
+                .jsonPath("$.average").isEqualTo(8.5)
+                .jsonPath("$.histogram['9']").isEqualTo(1);
+    }
+
+    @Test
+    void getReviewSummary_notModified() {
+        var summary = new ReviewSummary(1L);
+        summary.setCount(2);
+        summary.setSum(17.0);
+
+        when(reviewSummaryService.getSummary(1L)).thenReturn(Mono.just(summary));
+
+        var etag = webTestClient
+                .get()
+                .uri("/v1/reviews/summary/{movieInfoId}", 1)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReviewSummary.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        webTestClient
+                .get()
+                .uri("/v1/reviews/summary/{movieInfoId}", 1)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void streamReviews_ndjson() {
+        var event = ReviewEvent.of(ReviewEvent.Type.ADDED, new Review("abc", 1L, "Awesome Movie", 9.0));
+        when(reviewFeedService.feed(1L)).thenReturn(Flux.just(event));
+
+        var events = webTestClient
+                .get()
+                .uri("/v1/reviews/stream/{movieInfoId}", 1)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(ReviewEvent.class)
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(received -> {
+                    assertEquals(ReviewEvent.Type.ADDED, received.getType());
+                    assertEquals("abc", received.getReview().getReviewId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getReviewSummary_invalidMovieInfoId() {
+        webTestClient
+                .get()
+                .uri("/v1/reviews/summary/{movieInfoId}", "abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
 }
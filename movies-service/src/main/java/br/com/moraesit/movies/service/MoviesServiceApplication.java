@@ -0,0 +1,17 @@
+package br.com.moraesit.movies.service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class MoviesServiceApplication {
+    public static void main(String[] args) {
+        var application = new SpringApplication(MoviesServiceApplication.class);
+        // keeps the startup steps for the actuator startup endpoint
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
+    }
+}
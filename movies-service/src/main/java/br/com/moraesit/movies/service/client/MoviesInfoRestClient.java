@@ -0,0 +1,68 @@
+package br.com.moraesit.movies.service.client;
+
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.common.pagination.KeysetPage;
+import br.com.moraesit.movies.service.config.ClientProperties;
+import br.com.moraesit.movies.service.config.WebClientConfig;
+import br.com.moraesit.movies.service.domain.MovieInfo;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class MoviesInfoRestClient {
+
+    private final WebClient webClient;
+
+    private final Duration timeout;
+
+    public MoviesInfoRestClient(WebClient.Builder webClientBuilder, ConnectionProvider moviesConnectionProvider,
+                                ClientProperties properties) {
+        var endpoint = properties.getInfo();
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(endpoint.getUrl())
+                .clientConnector(WebClientConfig.connector(moviesConnectionProvider, endpoint))
+                .defaultHeaders(headers -> headers.setAccept(properties.getAccept()))
+                .build();
+        this.timeout = endpoint.getTimeout();
+    }
+
+    /**
+     * Completes empty when the movie does not exist.
+     */
+    public Mono<MovieInfo> retrieveMovieInfo(String movieInfoId) {
+        return webClient.get()
+                .uri("/v1/movieinfos/{id}", movieInfoId)
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_FOUND)
+                        return response.releaseBody().then(Mono.<MovieInfo>empty());
+                    if (response.statusCode().isError())
+                        return response.createException().flatMap(ex -> Mono.<MovieInfo>error(ex));
+                    return response.bodyToMono(MovieInfo.class);
+                })
+                .timeout(timeout);
+    }
+
+    public Mono<KeysetPage<MovieInfo>> retrieveMovieInfosPage(Integer year, String after, int limit) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/movieinfos")
+                        .queryParam("limit", limit)
+                        .queryParamIfPresent("year", Optional.ofNullable(year))
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .build())
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isError())
+                        return response.createException().flatMap(ex -> Mono.<KeysetPage<MovieInfo>>error(ex));
+                    var nextCursor = response.headers().asHttpHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+                    return response.bodyToFlux(MovieInfo.class)
+                            .collectList()
+                            .map(movieInfos -> new KeysetPage<>(movieInfos, nextCursor));
+                })
+                .timeout(timeout);
+    }
+}
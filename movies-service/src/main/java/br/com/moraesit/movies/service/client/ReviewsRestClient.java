@@ -0,0 +1,73 @@
+package br.com.moraesit.movies.service.client;
+
+import br.com.moraesit.movies.service.config.ClientProperties;
+import br.com.moraesit.movies.service.config.WebClientConfig;
+import br.com.moraesit.movies.service.domain.Review;
+import br.com.moraesit.movies.service.domain.ReviewGroup;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+@Component
+public class ReviewsRestClient {
+
+    private final WebClient webClient;
+
+    private final Duration timeout;
+
+    public ReviewsRestClient(WebClient.Builder webClientBuilder, ConnectionProvider moviesConnectionProvider,
+                             ClientProperties properties) {
+        var endpoint = properties.getReview();
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(endpoint.getUrl())
+                .clientConnector(WebClientConfig.connector(moviesConnectionProvider, endpoint))
+                .defaultHeaders(headers -> headers.setAccept(properties.getAccept()))
+                .build();
+        this.timeout = endpoint.getTimeout();
+    }
+
+    /**
+     * Reviews are keyed by a numeric movieInfoId, so a movie with any other id cannot have any
+     * and the call is skipped.
+     */
+    public Flux<Review> retrieveReviews(String movieInfoId) {
+        if (!isNumeric(movieInfoId))
+            return Flux.empty();
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/reviews")
+                        .queryParam("movieInfoId", movieInfoId)
+                        .build())
+                .retrieve()
+                .bodyToFlux(Review.class)
+                .timeout(timeout);
+    }
+
+    /**
+     * Reviews of several movies in one call, one group per movie. Ids that cannot have reviews
+     * are left out of the request.
+     */
+    public Flux<ReviewGroup> retrieveReviewGroups(Collection<String> movieInfoIds) {
+        var numericIds = movieInfoIds.stream()
+                .filter(ReviewsRestClient::isNumeric)
+                .collect(Collectors.joining(","));
+        if (numericIds.isEmpty())
+            return Flux.empty();
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/reviews")
+                        .queryParam("movieInfoIds", numericIds)
+                        .build())
+                .retrieve()
+                .bodyToFlux(ReviewGroup.class)
+                .timeout(timeout);
+    }
+
+    private static boolean isNumeric(String movieInfoId) {
+        return movieInfoId != null && !movieInfoId.isEmpty() && movieInfoId.length() <= 18
+                && movieInfoId.chars().allMatch(Character::isDigit);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.moraesit.movies.service.config;
+
+import br.com.moraesit.movies.common.codec.MediaTypes;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "movies.clients")
+public class ClientProperties {
+
+    /**
+     * Connections kept per backing service, shared by every in-flight request.
+     */
+    private int maxConnections = 100;
+
+    /**
+     * How long a call waits for a free pooled connection before failing.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Pooled connections idle for longer than this are closed.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Movies whose reviews are fetched with one batched call while composing a list.
+     */
+    private int reviewBatchSize = 100;
+
+    /**
+     * Batched review calls running at once while composing a list of movies.
+     */
+    private int listConcurrency = 4;
+
+    /**
+     * Accept header of every call. Smile is cheaper to decode than JSON and, unlike CBOR, can be
+     * decoded as a stream of values.
+     */
+    private List<MediaType> accept = List.of(MediaTypes.APPLICATION_SMILE, MediaType.APPLICATION_JSON);
+
+    private Endpoint info = new Endpoint("http://localhost:8080");
+
+    private Endpoint review = new Endpoint("http://localhost:8081");
+
+    @Data
+    public static class Endpoint {
+
+        private String url;
+
+        private Duration connectTimeout = Duration.ofMillis(500);
+
+        /**
+         * Upper bound for a whole call, from sending the request to the last byte of the body.
+         */
+        private Duration timeout = Duration.ofSeconds(2);
+
+        public Endpoint() {
+        }
+
+        public Endpoint(String url) {
+            this.url = url;
+        }
+    }
+}
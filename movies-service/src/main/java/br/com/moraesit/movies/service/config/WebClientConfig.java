@@ -0,0 +1,36 @@
+package br.com.moraesit.movies.service.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * One pool for both clients; Reactor Netty keeps a separate set of connections per remote address.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider moviesConnectionProvider(ClientProperties properties) {
+        return ConnectionProvider.builder("movies-clients")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Only the connect timeout lives on the connector; the per-call timeout is applied by each
+     * client around the whole exchange so it surfaces as a {@link java.util.concurrent.TimeoutException}.
+     */
+    public static ClientHttpConnector connector(ConnectionProvider connectionProvider, ClientProperties.Endpoint endpoint) {
+        var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) endpoint.getConnectTimeout().toMillis());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.moraesit.movies.service.controller;
+
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.service.domain.Movie;
+import br.com.moraesit.movies.service.service.MoviesService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1")
+public class MoviesController {
+
+    private final MoviesService moviesService;
+
+    public MoviesController(MoviesService moviesService) {
+        this.moviesService = moviesService;
+    }
+
+    @GetMapping("/movies/{movieId}")
+    public Mono<ResponseEntity<Movie>> getMovieById(@PathVariable String movieId) {
+        return moviesService.getMovieById(movieId)
+                .map(ResponseEntity.ok()::body)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/movies")
+    public Mono<ResponseEntity<List<Movie>>> getMovies(@RequestParam(value = "year", required = false) Integer year,
+                                                       @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                       @RequestParam(value = "after", required = false) String after) {
+        return moviesService.getMoviesPage(year, after, limit)
+                .map(page -> {
+                    var response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null)
+                        response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+                    return response.body(page.getItems());
+                });
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.moraesit.movies.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfo {
+    private String movieInfoId;
+    private String name;
+    private Integer year;
+    private List<String> cast;
+    private LocalDate releaseDate;
+}
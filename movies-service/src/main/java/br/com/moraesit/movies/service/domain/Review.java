@@ -0,0 +1,16 @@
+package br.com.moraesit.movies.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Review {
+    private String reviewId;
+    private Long movieInfoId;
+    private String comment;
+    private Double rating;
+    private Long version;
+}
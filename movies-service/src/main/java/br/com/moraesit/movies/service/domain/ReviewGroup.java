@@ -0,0 +1,15 @@
+package br.com.moraesit.movies.service.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewGroup {
+    private Long movieInfoId;
+    private List<Review> reviews;
+}
@@ -0,0 +1,47 @@
+package br.com.moraesit.movies.service.exceptionhandler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@ControllerAdvice
+public class GlobalErrorHandler {
+
+    /**
+     * Client errors from a backing service (a bad cursor, say) are the caller's to fix and are
+     * relayed as they are; anything else means the backing service failed.
+     */
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<String> handleResponseError(WebClientResponseException ex) {
+        log.error("exception caught in handleResponseError: {}", ex.getMessage());
+
+        if (ex.getStatusCode().is4xxClientError())
+            return ResponseEntity.status(ex.getStatusCode())
+                    .body(ex.getResponseBodyAsString());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(WebClientRequestException.class)
+    public ResponseEntity<String> handleRequestError(WebClientRequestException ex) {
+        log.error("exception caught in handleRequestError: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeout(TimeoutException ex) {
+        log.error("exception caught in handleTimeout: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ex.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.moraesit.movies.service.service;
+
+import br.com.moraesit.movies.common.pagination.KeysetPage;
+import br.com.moraesit.movies.service.client.MoviesInfoRestClient;
+import br.com.moraesit.movies.service.client.ReviewsRestClient;
+import br.com.moraesit.movies.service.config.ClientProperties;
+import br.com.moraesit.movies.service.domain.Movie;
+import br.com.moraesit.movies.service.domain.MovieInfo;
+import br.com.moraesit.movies.service.domain.ReviewGroup;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class MoviesService {
+
+    private final MoviesInfoRestClient moviesInfoRestClient;
+
+    private final ReviewsRestClient reviewsRestClient;
+
+    private final int reviewBatchSize;
+
+    private final int listConcurrency;
+
+    public MoviesService(MoviesInfoRestClient moviesInfoRestClient, ReviewsRestClient reviewsRestClient,
+                         ClientProperties properties) {
+        this.moviesInfoRestClient = moviesInfoRestClient;
+        this.reviewsRestClient = reviewsRestClient;
+        this.reviewBatchSize = properties.getReviewBatchSize();
+        this.listConcurrency = properties.getListConcurrency();
+    }
+
+    /**
+     * Both lookups start together; a missing movie completes empty and cancels the review call.
+     */
+    public Mono<Movie> getMovieById(String movieId) {
+        return Mono.zip(
+                moviesInfoRestClient.retrieveMovieInfo(movieId),
+                reviewsRestClient.retrieveReviews(movieId).collectList(),
+                Movie::new);
+    }
+
+    /**
+     * Composes one page of movies with one batched review call per {@code reviewBatchSize}
+     * movies, at most {@code listConcurrency} of them at a time, so the number of calls does not
+     * grow with each movie on the page.
+     */
+    public Mono<KeysetPage<Movie>> getMoviesPage(Integer year, String after, int limit) {
+        return moviesInfoRestClient.retrieveMovieInfosPage(year, after, limit)
+                .flatMap(page -> Flux.fromIterable(page.getItems())
+                        .map(MovieInfo::getMovieInfoId)
+                        .buffer(reviewBatchSize)
+                        .flatMap(reviewsRestClient::retrieveReviewGroups, listConcurrency)
+                        .collectMap(group -> String.valueOf(group.getMovieInfoId()), ReviewGroup::getReviews)
+                        .map(reviewsByMovie -> new KeysetPage<>(page.getItems().stream()
+                                .map(movieInfo -> new Movie(movieInfo,
+                                        reviewsByMovie.getOrDefault(movieInfo.getMovieInfoId(), List.of())))
+                                .toList(), page.getNextCursor())));
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.moraesit.movies.service.controller;
+
+import br.com.moraesit.movies.common.pagination.KeysetCursor;
+import br.com.moraesit.movies.service.domain.Movie;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@AutoConfigureWebTestClient
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MoviesControllerIntegrationTest {
+
+    static MockWebServer infoServer = startServer();
+    static MockWebServer reviewServer = startServer();
+
+    /**
+     * Stubbed responses by request path, including the query string.
+     */
+    static Map<String, Function<RecordedRequest, MockResponse>> stubs = new ConcurrentHashMap<>();
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void clientProperties(DynamicPropertyRegistry registry) {
+        registry.add("movies.clients.info.url", () -> "http://localhost:" + infoServer.getPort());
+        registry.add("movies.clients.review.url", () -> "http://localhost:" + reviewServer.getPort());
+        registry.add("movies.clients.review.timeout", () -> "500ms");
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubs.clear();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        infoServer.shutdown();
+        reviewServer.shutdown();
+    }
+
+    @Test
+    void getMovieById() {
+        stubJson("/v1/movieinfos/1", """
+                {"movieInfoId": "1", "name": "Batman Begins", "year": 2005,
+                 "cast": ["Christian Bale", "Michael Cane"], "releaseDate": "2005-06-15"}""");
+        stubJson("/v1/reviews?movieInfoId=1", """
+                [{"reviewId": "r1", "movieInfoId": 1, "comment": "Awesome Movie", "rating": 9.0},
+                 {"reviewId": "r2", "movieInfoId": 1, "comment": "Excellent Movie", "rating": 8.0}]""");
+
+        webTestClient
+                .get()
+                .uri("/v1/movies/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    assertNotNull(movie);
+                    assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                    assertEquals(2, movie.getReviews().size());
+                });
+    }
+
+    @Test
+    void getMovieById_notFound() {
+        stubs.put("/v1/movieinfos/1", request -> new MockResponse().setResponseCode(404));
+        stubJson("/v1/reviews?movieInfoId=1", "[]");
+
+        webTestClient
+                .get()
+                .uri("/v1/movies/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    void getMovieById_reviewsTimeout() {
+        stubJson("/v1/movieinfos/1", """
+                {"movieInfoId": "1", "name": "Batman Begins", "year": 2005}""");
+        stubs.put("/v1/reviews?movieInfoId=1", request -> json("[]").setHeadersDelay(2, TimeUnit.SECONDS));
+
+        webTestClient
+                .get()
+                .uri("/v1/movies/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void getMovieById_infoServiceError() {
+        stubs.put("/v1/movieinfos/1", request -> new MockResponse().setResponseCode(500));
+        stubJson("/v1/reviews?movieInfoId=1", "[]");
+
+        webTestClient
+                .get()
+                .uri("/v1/movies/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.BAD_GATEWAY);
+    }
+
+    @Test
+    void getMovies() {
+        stubs.put("/v1/movieinfos?limit=2", request -> json("""
+                [{"movieInfoId": "1", "name": "Batman Begins", "year": 2005},
+                 {"movieInfoId": "2", "name": "The Dark Knight", "year": 2008}]""")
+                .setHeader(KeysetCursor.NEXT_CURSOR_HEADER, "cursor-2"));
+        // one batched call for the whole page, groups only for movies that have reviews
+        stubJson("/v1/reviews?movieInfoIds=1,2", """
+                [{"movieInfoId": 1, "reviews": [
+                  {"reviewId": "r1", "movieInfoId": 1, "comment": "Awesome Movie", "rating": 9.0}]}]""");
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/movies")
+                        .queryParam("limit", "2")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(KeysetCursor.NEXT_CURSOR_HEADER, "cursor-2")
+                .expectBodyList(Movie.class)
+                .value(movies -> {
+                    assertEquals(2, movies.size());
+                    assertEquals("1", movies.get(0).getMovieInfo().getMovieInfoId());
+                    assertEquals(1, movies.get(0).getReviews().size());
+                    assertEquals("2", movies.get(1).getMovieInfo().getMovieInfoId());
+                    assertEquals(0, movies.get(1).getReviews().size());
+                });
+    }
+
+    @Test
+    void getMovies_invalidCursor() {
+        stubs.put("/v1/movieinfos?limit=20&after=bad", request -> new MockResponse()
+                .setResponseCode(400)
+                .setBody("invalid cursor"));
+
+        webTestClient
+                .get()
+                .uri("/v1/movies?after={after}", "bad")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private static void stubJson(String path, String body) {
+        stubs.put(path, request -> json(body));
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    private static MockWebServer startServer() {
+        var server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                var stub = stubs.get(request.getPath());
+                return stub != null ? stub.apply(request) : new MockResponse().setResponseCode(404);
+            }
+        });
+        try {
+            server.start();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return server;
+    }
+}